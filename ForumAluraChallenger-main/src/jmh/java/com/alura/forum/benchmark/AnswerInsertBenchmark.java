@@ -0,0 +1,151 @@
+package com.alura.forum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserção de 100 mil respostas reproduzindo o SQL que o Hibernate emite em cada estratégia de id:
+ * IDENTITY (um INSERT com chave gerada por linha) e sequência pooled-lo em tabela (um bloco de 50 ids
+ * por ida à answer_seq e INSERTs em lote com rewriteBatchedStatements). Cada execução é desfeita com
+ * rollback. Banco em BENCH_JDBC_URL (padrão: o mesmo do application.properties), com o schema do Flyway.
+ * A answer não tem mais AUTO_INCREMENT (V13): as duas variantes gravam em cópias temporárias dela, com as
+ * mesmas colunas e índices e sem as chaves estrangeiras, e só a cópia do IDENTITY ganha o AUTO_INCREMENT.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class AnswerInsertBenchmark {
+
+    private static final String DEFAULT_URL =
+            "jdbc:mysql://127.0.0.1:3306/forum_alura?serverTimezone=UTC&rewriteBatchedStatements=true";
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Param("100000")
+    private int rows;
+
+    private Connection connection;
+    // Conexão separada para a answer_seq, como o Hibernate faz (transação isolada)
+    private Connection sequenceConnection;
+    private long topicId;
+    private long authorId;
+
+    @Setup(Level.Trial)
+    public void connect() throws SQLException {
+        String url = System.getenv().getOrDefault("BENCH_JDBC_URL", DEFAULT_URL);
+        String user = System.getenv().getOrDefault("BENCH_JDBC_USER", "root");
+        String password = System.getenv().getOrDefault("BENCH_JDBC_PASSWORD", "");
+        connection = DriverManager.getConnection(url, user, password);
+        connection.setAutoCommit(false);
+        sequenceConnection = DriverManager.getConnection(url, user, password);
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT t.id, t.fk_user FROM topic t LIMIT 1")) {
+            if (!rs.next()) throw new IllegalStateException("Nenhum tópico no banco de benchmark");
+            topicId = rs.getLong(1);
+            authorId = rs.getLong(2);
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMPORARY TABLE answer_identity LIKE answer");
+            statement.execute("ALTER TABLE answer_identity MODIFY id BIGINT NOT NULL AUTO_INCREMENT");
+            statement.execute("CREATE TEMPORARY TABLE answer_pooled LIKE answer");
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() throws SQLException {
+        connection.rollback();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        connection.close();
+        sequenceConnection.close();
+    }
+
+    @Benchmark
+    public long identity() throws SQLException {
+        long last = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO answer_identity (message, created_at, version, fk_topic, fk_author) VALUES (?, ?, ?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < rows; i++) {
+                bind(insert, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    last = keys.getLong(1);
+                }
+            }
+        }
+        return last;
+    }
+
+    @Benchmark
+    public long pooledBatched() throws SQLException {
+        long next = 0;
+        long high = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO answer_pooled (message, created_at, version, fk_topic, fk_author, id) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                if (next == high) {
+                    next = nextBlock();
+                    high = next + ALLOCATION_SIZE;
+                }
+                bind(insert, i);
+                insert.setLong(6, next++);
+                insert.addBatch();
+                if ((i + 1) % ALLOCATION_SIZE == 0) insert.executeBatch();
+            }
+            insert.executeBatch();
+        }
+        return next;
+    }
+
+    private void bind(PreparedStatement insert, int i) throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        insert.setString(1, "Resposta de benchmark " + i);
+        insert.setTimestamp(2, now);
+        insert.setTimestamp(3, now);
+        insert.setLong(4, topicId);
+        insert.setLong(5, authorId);
+    }
+
+    // Mesmo par de comandos do TableStructure do Hibernate para a sequência emulada
+    private long nextBlock() throws SQLException {
+        sequenceConnection.setAutoCommit(false);
+        try (Statement select = sequenceConnection.createStatement();
+             ResultSet rs = select.executeQuery("SELECT next_val FROM answer_seq FOR UPDATE");
+             PreparedStatement update = sequenceConnection.prepareStatement(
+                     "UPDATE answer_seq SET next_val = ? WHERE next_val = ?")) {
+            rs.next();
+            long value = rs.getLong(1);
+            update.setLong(1, value + ALLOCATION_SIZE);
+            update.setLong(2, value);
+            update.executeUpdate();
+            sequenceConnection.commit();
+            return value;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.alura.forum.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Respostas concorrentes no mesmo tópico, uma transação por resposta, reproduzindo o SQL do
+ * TopicService.addAnswerToPost antes (existsById, UPDATE do contador, SELECT do status, INSERT e, na
+ * primeira resposta, o UPDATE versionado da entidade) e depois (UPDATE condicional WHERE status = 1,
+ * UPDATE do contador quando ele não casa, INSERT). O id da resposta vem da answer_seq em blocos de 50 por
+ * thread, fora da transação, nos dois casos: a estratégia de id é medida à parte no
+ * {@link AnswerInsertBenchmark}. Banco em BENCH_JDBC_URL.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class AnswerPostBenchmark {
+
+    private static final String DEFAULT_URL =
+            "jdbc:mysql://127.0.0.1:3306/forum_alura?serverTimezone=UTC&rewriteBatchedStatements=true";
+    private static final String MESSAGE = "Resposta de benchmark";
+    private static final int ALLOCATION_SIZE = 50;
+
+    // Tópico disputado por todas as threads, recriado SEM RESPOSTAS a cada iteração
+    @State(Scope.Benchmark)
+    public static class HotTopic {
+
+        private long topicId;
+        private long authorId;
+
+        @Setup(Level.Iteration)
+        public void create() throws SQLException {
+            try (Connection connection = connect();
+                 Statement statement = connection.createStatement()) {
+                try (ResultSet rs = statement.executeQuery("SELECT MIN(id) FROM user")) {
+                    rs.next();
+                    authorId = rs.getLong(1);
+                }
+                topicId = reserveIds(connection, "topic", 1);
+                statement.executeUpdate("INSERT INTO topic (id, title, message, created_at, status, fk_category, fk_user) " +
+                        "SELECT " + topicId + ", 'benchmark', 'mensagem', NOW(), '1', MIN(id), " + authorId + " FROM category");
+            }
+        }
+
+        @TearDown(Level.Iteration)
+        public void delete() throws SQLException {
+            try (Connection connection = connect();
+                 PreparedStatement answers = connection.prepareStatement("DELETE FROM answer WHERE fk_topic = ?");
+                 PreparedStatement topic = connection.prepareStatement("DELETE FROM topic WHERE id = ?")) {
+                answers.setLong(1, topicId);
+                answers.executeUpdate();
+                topic.setLong(1, topicId);
+                topic.executeUpdate();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+
+        private Connection connection;
+        // Conexão separada para a answer_seq, como o Hibernate faz (transação isolada)
+        private Connection sequenceConnection;
+        private long nextId;
+        private long highId;
+
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            connection = connect();
+            connection.setAutoCommit(false);
+            sequenceConnection = connect();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+            sequenceConnection.close();
+        }
+
+        long nextAnswerId() throws SQLException {
+            if (nextId == highId) {
+                nextId = reserveIds(sequenceConnection, "answer", ALLOCATION_SIZE);
+                highId = nextId + ALLOCATION_SIZE;
+            }
+            return nextId++;
+        }
+    }
+
+    @Benchmark
+    public int readThenWrite(HotTopic topic, Session session) throws SQLException {
+        Connection connection = session.connection;
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement exists = connection.prepareStatement("SELECT COUNT(*) FROM topic WHERE id = ?");
+             PreparedStatement register = connection.prepareStatement(
+                     "UPDATE topic SET answer_count = answer_count + 1, last_activity_at = ?, version = ? WHERE id = ?");
+             PreparedStatement status = connection.prepareStatement("SELECT status FROM topic WHERE id = ?");
+             PreparedStatement version = connection.prepareStatement("SELECT version FROM topic WHERE id = ?");
+             PreparedStatement markAnswered = connection.prepareStatement(
+                     "UPDATE topic SET status = '2', version = ? WHERE id = ? AND version = ?")) {
+            exists.setLong(1, topic.topicId);
+            try (ResultSet rs = exists.executeQuery()) {
+                rs.next();
+                if (rs.getLong(1) == 0) throw new IllegalStateException("Tópico não encontrado");
+            }
+            register.setTimestamp(1, now);
+            register.setTimestamp(2, now);
+            register.setLong(3, topic.topicId);
+            register.executeUpdate();
+            status.setLong(1, topic.topicId);
+            boolean first;
+            try (ResultSet rs = status.executeQuery()) {
+                rs.next();
+                first = rs.getInt(1) == 1;
+            }
+            insertAnswer(connection, topic, session.nextAnswerId(), now);
+            int updated = 1;
+            if (first) {
+                // Dirty checking da entidade carregada: UPDATE com a versão lida
+                version.setLong(1, topic.topicId);
+                Timestamp current;
+                try (ResultSet rs = version.executeQuery()) {
+                    rs.next();
+                    current = rs.getTimestamp(1);
+                }
+                markAnswered.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
+                markAnswered.setLong(2, topic.topicId);
+                markAnswered.setTimestamp(3, current);
+                updated = markAnswered.executeUpdate();
+            }
+            connection.commit();
+            return updated;
+        } catch (SQLException | RuntimeException ex) {
+            connection.rollback();
+            throw ex;
+        }
+    }
+
+    @Benchmark
+    public int guardedUpdate(HotTopic topic, Session session) throws SQLException {
+        Connection connection = session.connection;
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement first = connection.prepareStatement("UPDATE topic SET status = '2', " +
+                "answer_count = answer_count + 1, last_activity_at = ?, version = ? WHERE id = ? AND status = '1'");
+             PreparedStatement register = connection.prepareStatement(
+                     "UPDATE topic SET answer_count = answer_count + 1, last_activity_at = ?, version = ? WHERE id = ?")) {
+            first.setTimestamp(1, now);
+            first.setTimestamp(2, now);
+            first.setLong(3, topic.topicId);
+            int updated = first.executeUpdate();
+            if (updated == 0) {
+                register.setTimestamp(1, now);
+                register.setTimestamp(2, now);
+                register.setLong(3, topic.topicId);
+                updated = register.executeUpdate();
+                if (updated == 0) throw new IllegalStateException("Tópico não encontrado");
+            }
+            insertAnswer(connection, topic, session.nextAnswerId(), now);
+            connection.commit();
+            return updated;
+        } catch (SQLException | RuntimeException ex) {
+            connection.rollback();
+            throw ex;
+        }
+    }
+
+    private static void insertAnswer(Connection connection, HotTopic topic, long id, Timestamp now) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO answer (message, created_at, version, fk_topic, fk_author, id) VALUES (?, ?, ?, ?, ?, ?)")) {
+            insert.setString(1, MESSAGE);
+            insert.setTimestamp(2, now);
+            insert.setTimestamp(3, now);
+            insert.setLong(4, topic.topicId);
+            insert.setLong(5, topic.authorId);
+            insert.setLong(6, id);
+            insert.executeUpdate();
+        }
+    }
+
+    // As tabelas não têm AUTO_INCREMENT: reserva count ids na <table>_seq (conexão em autocommit) e devolve o primeiro
+    private static long reserveIds(Connection connection, String table, int count) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE " + table + "_seq SET next_val = LAST_INSERT_ID(next_val + " + count + ")");
+            try (ResultSet rs = statement.executeQuery("SELECT LAST_INSERT_ID()")) {
+                rs.next();
+                return rs.getLong(1) - count;
+            }
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        String url = System.getenv().getOrDefault("BENCH_JDBC_URL", DEFAULT_URL);
+        String user = System.getenv().getOrDefault("BENCH_JDBC_USER", "root");
+        String password = System.getenv().getOrDefault("BENCH_JDBC_PASSWORD", "");
+        return DriverManager.getConnection(url, user, password);
+    }
+}
@@ -0,0 +1,132 @@
+package com.alura.forum.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Carga de clientes concorrentes contra a API em execução, para comparar o modo de threads virtuais
+ * (VIRTUAL_THREADS=true) com o pool de plataforma do Tomcat. Cada cliente é uma thread virtual que repete o
+ * GET assim que recebe a resposta anterior; os primeiros segundos são aquecimento e ficam fora das métricas.
+ * Não é um benchmark JMH: roda no mesmo perfil só pelo classpath.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.main=com.alura.forum.benchmark.HttpLoadDriver \
+ *     "-Djmh.args=http://localhost:8080 1000 30 /topics?size=20 10"
+ * </pre>
+ * Argumentos: URL base, clientes, segundos medidos, caminho e segundos de aquecimento. LOAD_TOKEN, se
+ * definido, vai no Authorization de cada requisição.
+ */
+public class HttpLoadDriver {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Uso: HttpLoadDriver <url base> <clientes> <segundos> <caminho> [aquecimento]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0] + args[3]);
+        int clients = Integer.parseInt(args[1]);
+        long measureNanos = Duration.ofSeconds(Long.parseLong(args[2])).toNanos();
+        long warmupNanos = Duration.ofSeconds(args.length > 4 ? Long.parseLong(args[4]) : 5).toNanos();
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).GET();
+        String token = System.getenv("LOAD_TOKEN");
+        if (token != null) builder.header("Authorization", "Bearer " + token);
+        HttpRequest request = builder.build();
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long deadline = measureFrom + measureNanos;
+        Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        List<Client> all = new ArrayList<>(clients);
+
+        try (HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                Client client = new Client();
+                all.add(client);
+                executor.submit(() -> client.run(http, request, measureFrom, deadline, errors));
+            }
+        }
+
+        long[] latencies = merge(all);
+        double seconds = measureNanos / 1e9;
+        System.out.printf("%s com %d clientes por %.0fs%n", uri, clients, seconds);
+        Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((cause, count) -> errorCounts.put(cause, count.sum()));
+        System.out.printf("respostas 2xx: %d (%.1f req/s), erros: %s%n",
+                latencies.length, latencies.length / seconds, errorCounts);
+        if (latencies.length > 0) {
+            System.out.printf("latência ms: p50 %.1f, p99 %.1f, máx %.1f%n",
+                    percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+        }
+    }
+
+    // Latências de um cliente: só ele escreve, a leitura acontece depois do fechamento do executor
+    private static class Client {
+
+        private long[] latencies = new long[256];
+        private int count;
+
+        void run(HttpClient http, HttpRequest request, long measureFrom, long deadline,
+                 Map<String, LongAdder> errors) {
+            long now;
+            while ((now = System.nanoTime()) < deadline) {
+                boolean measured = now >= measureFrom;
+                try {
+                    HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    long elapsed = System.nanoTime() - now;
+                    if (!measured) continue;
+                    if (response.statusCode() / 100 == 2) record(elapsed);
+                    else count(errors, "HTTP " + response.statusCode());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception ex) {
+                    if (measured) count(errors, ex.getClass().getSimpleName());
+                }
+            }
+        }
+
+        private void record(long elapsed) {
+            if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = elapsed;
+        }
+    }
+
+    // Erros por status ou tipo de exceção: recusa de conexão e timeout pedem leituras diferentes
+    private static void count(Map<String, LongAdder> errors, String cause) {
+        errors.computeIfAbsent(cause, key -> new LongAdder()).increment();
+    }
+
+    private static long[] merge(List<Client> clients) {
+        long[] merged = new long[clients.stream().mapToInt(client -> client.count).sum()];
+        int offset = 0;
+        for (Client client : clients) {
+            System.arraycopy(client.latencies, 0, merged, offset, client.count);
+            offset += client.count;
+        }
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,152 @@
+package com.alura.forum.benchmark;
+
+import com.alura.forum.model.entity.Category;
+import com.alura.forum.model.entity.Course;
+import com.alura.forum.model.entity.Subcategory;
+import com.alura.forum.model.entity.Topic;
+import com.alura.forum.model.entity.User;
+import com.alura.forum.model.projections.TopicSlimDTO;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Serialização de uma página de tópicos com o JSON do /topics: projeções de interface do Spring Data
+ * (proxies sobre as entidades, como as consultas derivadas devolviam antes) contra os records preenchidos
+ * por "SELECT new". A página é montada no setup; o benchmark mede só o Jackson.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+// Os proxies só estabilizam depois de ~10 s de aquecimento
+@Warmup(iterations = 15, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ProjectionSerializationBenchmark {
+
+    @Param("100")
+    private int rows;
+
+    private ObjectMapper objectMapper;
+    private List<LegacyTopicSlim> proxies;
+    private List<TopicSlimDTO> records;
+
+    @Setup
+    public void setUp() {
+        // Mesma configuração de datas do ObjectMapper do Spring Boot
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+        List<Topic> topics = IntStream.range(0, rows).mapToObj(ProjectionSerializationBenchmark::topic).toList();
+        proxies = topics.stream().map(t -> projectionFactory.createProjection(LegacyTopicSlim.class, t)).toList();
+        records = topics.stream().map(ProjectionSerializationBenchmark::record).toList();
+        // As duas formas precisam produzir o mesmo JSON (a ordem dos campos aninhados não era fixada antes)
+        if (!objectMapper.valueToTree(records).equals(objectMapper.valueToTree(proxies)))
+            throw new IllegalStateException("JSON diferente entre as projeções");
+    }
+
+    @Benchmark
+    public byte[] interfaceProjections() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(proxies);
+    }
+
+    @Benchmark
+    public byte[] recordProjections() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(records);
+    }
+
+    private static Topic topic(int i) {
+        Category category = new Category();
+        category.setId((long) i % 5 + 1);
+        category.setName("Categoria " + category.getId());
+        Subcategory subcategory = new Subcategory();
+        subcategory.setId((long) i % 10 + 1);
+        subcategory.setName("Subcategoria " + subcategory.getId());
+        Course course = new Course();
+        course.setId((long) i % 20 + 1);
+        course.setName("Curso " + course.getId());
+        User author = new User();
+        author.setId((long) i % 7 + 1);
+        author.setName("Autor " + author.getId());
+
+        Topic topic = new Topic();
+        topic.setId((long) i + 1);
+        topic.setTitle("Tópico de benchmark " + i);
+        topic.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i));
+        topic.setStatus(i % 4 + 1);
+        topic.setAnswerCount(i % 13);
+        topic.setLastActivityAt(topic.getCreatedAt().plusHours(1));
+        topic.setCategory(category);
+        topic.setSubcategory(subcategory);
+        topic.setCourse(course);
+        topic.setAuthor(author);
+        return topic;
+    }
+
+    // Mesmas colunas do SLIM_SELECT do TopicRepository, na ordem do construtor plano
+    private static TopicSlimDTO record(Topic t) {
+        return new TopicSlimDTO(t.getId(), t.getTitle(), t.getCreatedAt(), t.getStatus(), t.getAnswerCount(),
+                t.getLastActivityAt(), t.getCategory().getId(), t.getCategory().getName(),
+                t.getSubcategory().getId(), t.getSubcategory().getName(), t.getCourse().getId(), t.getCourse().getName(),
+                t.getAuthor().getId(), t.getAuthor().getName());
+    }
+
+    // Projeções de interface removidas, como eram (inclusive o getStatusName com busca por stream)
+    @JsonPropertyOrder({"id", "title", "createdAt", "status", "statusName", "answerCount", "lastActivityAt", "category", "subcategory", "course", "author"})
+    public interface LegacyTopicSlim {
+        Long getId();
+
+        String getTitle();
+
+        Instant getCreatedAt();
+
+        Integer getStatus();
+
+        Integer getAnswerCount();
+
+        Instant getLastActivityAt();
+
+        default String getStatusName() {
+            return Arrays.stream(com.alura.forum.model.entity.enums.TopicStatus.values())
+                    .filter(s -> Objects.equals(s.getId(), getStatus()))
+                    .findFirst().orElseThrow().getName();
+        }
+
+        LegacySlim getCategory();
+
+        LegacySlim getSubcategory();
+
+        LegacySlim getCourse();
+
+        LegacySlim getAuthor();
+    }
+
+    public interface LegacySlim {
+        Long getId();
+
+        String getName();
+    }
+}
@@ -0,0 +1,181 @@
+package com.alura.forum.benchmark;
+
+import com.alura.forum.infra.cache.ReferenceDataSnapshot;
+import com.alura.forum.model.projections.CategoryTreeRow;
+import com.alura.forum.repository.CategoryRepository;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consulta de existência e de pais dos dados de referência: busca binária no {@link ReferenceDataSnapshot}
+ * contra o SQL que o existsById do Spring Data emitia em cada getReferenceByIdIfExist (um por curso, e três
+ * na cadeia curso -> subcategoria -> categoria do TopicConverter). O snapshot usa uma árvore sintética de
+ * {@code courses} cursos; o existsById roda nos ids reais do banco em BENCH_JDBC_URL. O setup imprime o
+ * tamanho retido dos arrays do snapshot e, para comparação, o de mapas HashMap&lt;Long, Long&gt; equivalentes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReferenceDataBenchmark {
+
+    private static final String DEFAULT_URL =
+            "jdbc:mysql://127.0.0.1:3306/forum_alura?serverTimezone=UTC&rewriteBatchedStatements=true";
+    // Mesmo SQL do existsById (count com limit) gerado pelo Hibernate para cada entidade
+    private static final String EXISTS_SQL = "select count(x1_0.id) from %s x1_0 where x1_0.id=? limit ?";
+
+    // Árvore sintética: 3 cursos por subcategoria e 2 subcategorias por categoria, como a proporção dos dados reais
+    @State(Scope.Benchmark)
+    public static class Snapshot {
+
+        @Param({"47", "10000"})
+        private int courses;
+
+        private ReferenceDataSnapshot snapshot;
+        private long[] courseIds;
+
+        @Setup(Level.Trial)
+        public void build() {
+            int subcategories = Math.max(1, courses / 3);
+            int categories = Math.max(1, subcategories / 2);
+            List<CategoryTreeRow> rows = new ArrayList<>(courses);
+            courseIds = new long[courses];
+            for (int i = 0; i < courses; i++) {
+                long subcategory = 10_000L + i % subcategories;
+                long category = 1L + (subcategory - 10_000L) % categories;
+                courseIds[i] = 1_000_000L + i;
+                rows.add(new CategoryTreeRow(category, "Categoria", subcategory, "Subcategoria", courseIds[i], "Curso"));
+            }
+            CategoryRepository repository = Mockito.mock(CategoryRepository.class);
+            Mockito.when(repository.findTreeRows()).thenReturn(rows);
+            snapshot = new ReferenceDataSnapshot(repository, Mockito.mock(PlatformTransactionManager.class));
+            // Primeira consulta constrói a cópia fora da medição
+            snapshot.courseExists(courseIds[0]);
+
+            long arrays = longArray(categories) + 2 * longArray(subcategories) + 2 * longArray(courses) + INDEX_RECORD;
+            long boxed = boxedMap(subcategories) + boxedMap(courses) + longArray(categories);
+            System.out.printf("%n%d categorias, %d subcategorias, %d cursos: arrays %d bytes, HashMap<Long, Long> ~%d bytes%n",
+                    categories, subcategories, courses, arrays, boxed);
+        }
+    }
+
+    // Uma conexão por thread, em autocommit, como o existsById fora de transação explícita
+    @State(Scope.Thread)
+    public static class Database {
+
+        private Connection connection;
+        private PreparedStatement courseExists;
+        private PreparedStatement subcategoryExists;
+        private PreparedStatement categoryExists;
+        private long[][] chains;
+
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            String url = System.getenv().getOrDefault("BENCH_JDBC_URL", DEFAULT_URL);
+            String user = System.getenv().getOrDefault("BENCH_JDBC_USER", "root");
+            String password = System.getenv().getOrDefault("BENCH_JDBC_PASSWORD", "");
+            connection = DriverManager.getConnection(url, user, password);
+            courseExists = connection.prepareStatement(EXISTS_SQL.formatted("course"));
+            subcategoryExists = connection.prepareStatement(EXISTS_SQL.formatted("subcategory"));
+            categoryExists = connection.prepareStatement(EXISTS_SQL.formatted("category"));
+            List<long[]> rows = new ArrayList<>();
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT c.id, s.id, s.fk_category FROM course c JOIN subcategory s ON s.id = c.fk_subcategory");
+                 ResultSet rs = select.executeQuery()) {
+                while (rs.next()) rows.add(new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3)});
+            }
+            if (rows.isEmpty()) throw new IllegalStateException("Nenhum curso no banco de benchmark");
+            chains = rows.toArray(long[][]::new);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    // Percorre os ids em sequência para não medir sempre o mesmo ramo da busca
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next(int length) {
+            int current = next;
+            next = current + 1 == length ? 0 : current + 1;
+            return current;
+        }
+    }
+
+    @Benchmark
+    public boolean snapshotCourseExists(Snapshot state, Cursor cursor) {
+        return state.snapshot.courseExists(state.courseIds[cursor.next(state.courseIds.length)]);
+    }
+
+    // Cadeia do TopicConverter: curso -> subcategoria -> categoria
+    @Benchmark
+    public long snapshotCourseChain(Snapshot state, Cursor cursor) {
+        long subcategory = state.snapshot.subcategoryOfCourse(state.courseIds[cursor.next(state.courseIds.length)]);
+        return state.snapshot.categoryOfSubcategory(subcategory);
+    }
+
+    @Benchmark
+    public boolean existsByIdCourse(Database db, Cursor cursor) throws SQLException {
+        return exists(db.courseExists, db.chains[cursor.next(db.chains.length)][0]);
+    }
+
+    @Benchmark
+    public boolean existsByIdChain(Database db, Cursor cursor) throws SQLException {
+        long[] chain = db.chains[cursor.next(db.chains.length)];
+        return exists(db.courseExists, chain[0]) & exists(db.subcategoryExists, chain[1])
+                & exists(db.categoryExists, chain[2]);
+    }
+
+    private static boolean exists(PreparedStatement statement, long id) throws SQLException {
+        statement.setLong(1, id);
+        statement.setInt(2, 1);
+        try (ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return rs.getLong(1) == 1;
+        }
+    }
+
+    // Tamanhos com oops comprimidos (HotSpot 64 bits, heap < 32 GB): cabeçalho de array 16 bytes, objeto 12
+    private static final long INDEX_RECORD = 12 + 5 * 4 + 4;
+
+    private static long longArray(int length) {
+        return align(16 + 8L * length);
+    }
+
+    // HashMap.Node (32) + Long da chave (16) + Long do valor (16) por entrada, mais a tabela de referências
+    private static long boxedMap(int entries) {
+        int capacity = Integer.highestOneBit(Math.max(1, (int) Math.ceil(entries / 0.75)) - 1) << 1;
+        return 48 + align(16 + 4L * Math.max(16, capacity)) + entries * (32L + 16 + 16);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
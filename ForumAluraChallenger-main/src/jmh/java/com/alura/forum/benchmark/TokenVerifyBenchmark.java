@@ -0,0 +1,81 @@
+package com.alura.forum.benchmark;
+
+import com.alura.forum.infra.security.InvalidTokenException;
+import com.alura.forum.infra.security.TokenService;
+import com.alura.forum.model.entity.User;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificação de JWT antes (Algorithm + JWTVerifier criados a cada chamada, RuntimeException com
+ * stack trace para token inválido) e depois (verificador único no TokenService, InvalidTokenException
+ * sem stack trace).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenVerifyBenchmark {
+
+    private static final String SECRET = "12345678";
+    private static final String ISSUER = "API FORUM_ALURA";
+
+    private TokenService tokenService;
+    private String token;
+    private String invalidToken;
+
+    @Setup
+    public void setUp() {
+        tokenService = new TokenService(SECRET);
+        User user = new User();
+        user.setLogin("benchmark@forum.com");
+        token = tokenService.gerarToken(user);
+        invalidToken = token.substring(0, token.length() - 2) + "xx";
+    }
+
+    @Benchmark
+    public String verifyPerCall() {
+        Algorithm algorithm = Algorithm.HMAC256(SECRET);
+        return JWT.require(algorithm).withIssuer(ISSUER).build().verify(token).getSubject();
+    }
+
+    @Benchmark
+    public String verifyShared() {
+        return tokenService.getSubject(token);
+    }
+
+    @Benchmark
+    public String invalidPerCall() {
+        try {
+            Algorithm algorithm = Algorithm.HMAC256(SECRET);
+            return JWT.require(algorithm).withIssuer(ISSUER).build().verify(invalidToken).getSubject();
+        } catch (JWTVerificationException ex) {
+            RuntimeException failure = new RuntimeException("Token JWT Expirado ou Inválido!");
+            return failure.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String invalidShared() {
+        try {
+            return tokenService.getSubject(invalidToken);
+        } catch (InvalidTokenException ex) {
+            return ex.getMessage();
+        }
+    }
+}
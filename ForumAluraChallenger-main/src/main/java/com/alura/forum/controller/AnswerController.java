@@ -3,17 +3,25 @@ package com.alura.forum.controller;
 import com.alura.forum.core.crud.CrudController;
 import com.alura.forum.model.dto.request.AnswerDTO;
 import com.alura.forum.model.dto.response.AnswerResponseDTO;
+import com.alura.forum.model.dto.response.MultiGetResponseDTO;
 import com.alura.forum.model.entity.Answer;
+import com.alura.forum.model.projections.AnswerSlim;
 import com.alura.forum.service.AnswerService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.util.List;
+
 @RestController
 @RequestMapping("/answers")
 public class AnswerController extends CrudController<Answer, Long, AnswerDTO, AnswerResponseDTO> {
@@ -26,6 +34,17 @@ public class AnswerController extends CrudController<Answer, Long, AnswerDTO, An
         return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).build();
     }
 
+    // Projeção plana: a entidade tem autor EAGER, que exigiria outra consulta com o cursor aberto
+    @Override
+    public void streamAll(HttpServletResponse response) throws IOException {
+        writeNdjson(response, rows -> answerService.streamAllSlim(rows::accept));
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetResponseDTO<AnswerSlim>> findAllByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(answerService.findSlimByIds(ids));
+    }
+
     @Transactional
     @PostMapping("{id}/answer_solution")
     public ResponseEntity<Void> answerSolution(@PathVariable("id") Long answerId) {
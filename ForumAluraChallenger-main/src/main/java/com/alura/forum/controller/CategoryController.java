@@ -1,9 +1,17 @@
 package com.alura.forum.controller;
 
 import com.alura.forum.core.crud.CrudController;
+import com.alura.forum.infra.cache.CategoryTreeCache;
 import com.alura.forum.model.dto.request.CategoryDTO;
 import com.alura.forum.model.dto.response.CategoryResponseDTO;
 import com.alura.forum.model.entity.Category;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -11,4 +19,22 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/categories")
 public class CategoryController extends CrudController<Category, Long, CategoryDTO, CategoryResponseDTO> {
 
+    @Autowired
+    private CategoryTreeCache categoryTreeCache;
+
+    // O ETag no ResponseEntity faz o Spring responder 304 quando o If-None-Match coincide
+    @GetMapping(value = "/tree", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Árvore de categorias", description = "Categorias com suas subcategorias e cursos, para o formulário de criação de tópicos")
+    public ResponseEntity<byte[]> tree(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        CategoryTreeCache.Snapshot snapshot = categoryTreeCache.get();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.eTag(snapshot.etag() + "-gzip")
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(snapshot.gzip());
+        }
+        return response.eTag(snapshot.etag()).body(snapshot.json());
+    }
 }
@@ -3,33 +3,54 @@ package com.alura.forum.controller;
 import com.alura.forum.converter.AnswerConverter;
 import com.alura.forum.converter.TopicConverter;
 import com.alura.forum.core.crud.CrudController;
+import com.alura.forum.core.pagination.CursorPage;
+import com.alura.forum.infra.sse.TopicEventStream;
+import com.alura.forum.infra.search.SearchOperator;
 import com.alura.forum.model.dto.request.AnswerDTO;
+import com.alura.forum.model.dto.request.TopicBulkDeleteDTO;
 import com.alura.forum.model.dto.request.TopicDTO;
 import com.alura.forum.model.dto.request.TopicFilterDTO;
 import com.alura.forum.model.dto.response.AnswerResponseDTO;
+import com.alura.forum.model.dto.response.BulkDeleteResponseDTO;
+import com.alura.forum.model.dto.response.MultiGetResponseDTO;
 import com.alura.forum.model.dto.response.TopicResponseDTO;
 import com.alura.forum.model.entity.Answer;
 import com.alura.forum.model.entity.Topic;
 import com.alura.forum.model.entity.enums.TopicStatus;
 import com.alura.forum.model.projections.AnswerSlim;
 import com.alura.forum.model.projections.TopicCompleteDTO;
+import com.alura.forum.model.projections.TopicDetail;
 import com.alura.forum.model.projections.TopicSlimDTO;
+import com.alura.forum.repository.fields.InvalidFieldsException;
 import com.alura.forum.service.AnswerService;
+import com.alura.forum.service.ExportService;
 import com.alura.forum.service.TopicService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/topics")
@@ -41,13 +62,78 @@ public class TopicController extends CrudController<Topic, Long, TopicDTO, Topic
     private AnswerService answerService;
     private AnswerConverter answerConverter;
     private TopicConverter topicConverter;
+    private ExportService exportService;
+    private TopicEventStream topicEventStream;
 
     @Override
     @Operation(summary = "Listar todos os tópicos", description = "Retorna uma lista paginada de todos os tópicos do fórum")
-    public ResponseEntity<Page<TopicSlimDTO>> findAll(Pageable pageable) {
-        return ResponseEntity.ok(topicService.findAllSlim(pageable));
+    public ResponseEntity<Page<TopicSlimDTO>> findAll(Pageable pageable, WebRequest request) {
+        if (request.checkNotModified(topicService.listingTag())) return null;
+        return ResponseEntity.ok().cacheControl(cacheControl()).body(topicService.findAllSlim(pageable));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Exportar tópicos", description = "Exporta todos os tópicos (opcionalmente com respostas) em NDJSON ou CSV, com gzip opcional")
+    @SecurityRequirement(name = "bearer-key")
+    public void export(@RequestParam(defaultValue = "ndjson") String format,
+                       @RequestParam(defaultValue = "false") boolean gzip,
+                       @RequestParam(defaultValue = "false") boolean answers,
+                       HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = ExportService.Format.of(format);
+        String fileName = "topics." + exportFormat.extension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : exportFormat.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString());
+        try (OutputStream out = gzip
+                ? new GZIPOutputStream(response.getOutputStream(), 64 * 1024)
+                : response.getOutputStream()) {
+            exportService.exportTopics(out, exportFormat, answers);
+        }
+    }
+
+    @Override
+    @Operation(summary = "Transmitir todos os tópicos", description = "NDJSON com a projeção resumida de cada tópico, lida por cursor do lado do servidor")
+    @SecurityRequirement(name = "bearer-key")
+    public void streamAll(HttpServletResponse response) throws IOException {
+        writeNdjson(response, rows -> topicService.streamAllSlim(rows::accept));
+    }
+
+    @GetMapping(params = "slice=true")
+    @Operation(summary = "Listar tópicos sem total", description = "Retorna apenas a fatia solicitada e se existe próxima página, sem contagem total")
+    public ResponseEntity<Slice<TopicSlimDTO>> findAllSlice(Pageable pageable) {
+        return ResponseEntity.ok(topicService.findAllSlice(pageable));
+    }
+
+    @GetMapping(params = {"cursor", "!ids"})
+    @Operation(summary = "Listar tópicos por cursor", description = "Paginação por cursor opaco (createdAt, id); envie cursor vazio para a primeira página")
+    public ResponseEntity<CursorPage<TopicSlimDTO>> findAllByCursor(@RequestParam(required = false) String cursor,
+                                                                    @RequestParam(defaultValue = "20") int size,
+                                                                    @RequestParam(required = false) String fields) {
+        rejectFields(fields, "listagens por cursor");
+        return ResponseEntity.ok(topicService.findAllByCursor(cursor, size));
+    }
+
+    @GetMapping(params = {"fields", "!ids", "!cursor"})
+    @Operation(summary = "Listar tópicos com campos escolhidos", description = "fields=id,title,...: o SQL seleciona só as colunas e os joins pedidos")
+    public ResponseEntity<Slice<Map<String, Object>>> findAllFields(@RequestParam String fields, Pageable pageable,
+                                                                    @RequestParam(defaultValue = "false") boolean slice) {
+        return ResponseEntity.ok(topicService.findAllFields(fields, pageable, slice));
+    }
+
+    @GetMapping(params = {"ids", "!cursor"})
+    @Operation(summary = "Buscar tópicos por lista de ids", description = "Resolve vários ids em uma consulta, na ordem pedida; ids inexistentes vêm em missing")
+    public ResponseEntity<MultiGetResponseDTO<TopicSlimDTO>> findAllByIds(@RequestParam List<Long> ids,
+                                                                          @RequestParam(required = false) String fields) {
+        rejectFields(fields, "buscas por ids");
+        return ResponseEntity.ok(topicService.findSlimByIds(ids));
     }
     
+    // Sem este mapeamento, ids + cursor casaria com os dois métodos acima e o Spring responderia 500
+    @GetMapping(params = {"ids", "cursor"})
+    @Operation(hidden = true)
+    public ResponseEntity<Void> rejectIdsWithCursor() {
+        throw new IllegalArgumentException("Use ids ou cursor, não os dois na mesma requisição");
+    }
+
     @GetMapping("/filter")
     @Operation(summary = "Buscar tópicos com filtros", description = "Permite buscar tópicos com diversos filtros combinados")
     public ResponseEntity<Page<TopicResponseDTO>> findByFilters(TopicFilterDTO filters, Pageable pageable) {
@@ -55,29 +141,70 @@ public class TopicController extends CrudController<Topic, Long, TopicDTO, Topic
         Page<TopicResponseDTO> dtoPage = topics.map(topicConverter::entityToDTOResponse);
         return ResponseEntity.ok(dtoPage);
     }
+
+    @GetMapping(value = "/filter", params = "fields")
+    @Operation(summary = "Buscar tópicos com filtros e campos escolhidos", description = "Mesmos filtros de /topics/filter; fields=id,title,... seleciona só as colunas e os joins pedidos")
+    public ResponseEntity<Page<Map<String, Object>>> findByFiltersFields(TopicFilterDTO filters, @RequestParam String fields,
+                                                                         Pageable pageable) {
+        return ResponseEntity.ok(topicService.findByFiltersFields(filters, fields, pageable));
+    }
     
     @GetMapping("/search")
-    @Operation(summary = "Buscar tópicos por título", description = "Busca tópicos que contenham o texto informado no título")
-    public ResponseEntity<Page<TopicSlimDTO>> findByTitle(@RequestParam String title, Pageable pageable) {
-        return ResponseEntity.ok(topicService.findByTitle(title, pageable));
+    @Operation(summary = "Buscar tópicos por texto", description = "Busca textual ranqueada em título, mensagem e respostas; use operator=OR ou 'termo1 OR termo2' para qualquer termo")
+    public ResponseEntity<Page<TopicSlimDTO>> search(@RequestParam(required = false) String q,
+                                                     @RequestParam(required = false) String title,
+                                                     @RequestParam(defaultValue = "AND") SearchOperator operator,
+                                                     @RequestParam(required = false) String fields,
+                                                     Pageable pageable) {
+        rejectFields(fields, "buscas textuais");
+        String query = q != null ? q : title;
+        if (query == null || query.isBlank()) throw new IllegalArgumentException("Informe o parâmetro 'q'");
+        return ResponseEntity.ok(topicService.search(query, operator, pageable));
     }
     
     @GetMapping("/category/{categoryId}")
     @Operation(summary = "Buscar tópicos por categoria", description = "Busca tópicos de uma categoria específica")
-    public ResponseEntity<Page<TopicSlimDTO>> findByCategory(@PathVariable Long categoryId, Pageable pageable) {
-        return ResponseEntity.ok(topicService.findByCategory(categoryId, pageable));
+    public ResponseEntity<Slice<TopicSlimDTO>> findByCategory(@PathVariable Long categoryId, Pageable pageable,
+                                                              @RequestParam(defaultValue = "false") boolean slice) {
+        return ResponseEntity.ok(topicService.findByCategory(categoryId, pageable, slice));
+    }
+
+    @GetMapping(value = "/category/{categoryId}", params = "fields")
+    @Operation(summary = "Buscar tópicos por categoria com campos escolhidos", description = "fields=id,title,...: o SQL seleciona só as colunas e os joins pedidos")
+    public ResponseEntity<Slice<Map<String, Object>>> findByCategoryFields(@PathVariable Long categoryId,
+                                                                           @RequestParam String fields, Pageable pageable,
+                                                                           @RequestParam(defaultValue = "false") boolean slice) {
+        return ResponseEntity.ok(topicService.findByCategoryFields(categoryId, fields, pageable, slice));
     }
     
     @GetMapping("/course/{courseId}")
     @Operation(summary = "Buscar tópicos por curso", description = "Busca tópicos de um curso específico")
-    public ResponseEntity<Page<TopicSlimDTO>> findByCourse(@PathVariable Long courseId, Pageable pageable) {
-        return ResponseEntity.ok(topicService.findByCourse(courseId, pageable));
+    public ResponseEntity<Slice<TopicSlimDTO>> findByCourse(@PathVariable Long courseId, Pageable pageable,
+                                                            @RequestParam(defaultValue = "false") boolean slice) {
+        return ResponseEntity.ok(topicService.findByCourse(courseId, pageable, slice));
+    }
+
+    @GetMapping(value = "/course/{courseId}", params = "fields")
+    @Operation(summary = "Buscar tópicos por curso com campos escolhidos", description = "fields=id,title,...: o SQL seleciona só as colunas e os joins pedidos")
+    public ResponseEntity<Slice<Map<String, Object>>> findByCourseFields(@PathVariable Long courseId,
+                                                                         @RequestParam String fields, Pageable pageable,
+                                                                         @RequestParam(defaultValue = "false") boolean slice) {
+        return ResponseEntity.ok(topicService.findByCourseFields(courseId, fields, pageable, slice));
     }
     
     @GetMapping("/status/{status}")
     @Operation(summary = "Buscar tópicos por status", description = "Busca tópicos com um status específico")
-    public ResponseEntity<Page<TopicSlimDTO>> findByStatus(@PathVariable TopicStatus status, Pageable pageable) {
-        return ResponseEntity.ok(topicService.findByStatus(status, pageable));
+    public ResponseEntity<Slice<TopicSlimDTO>> findByStatus(@PathVariable TopicStatus status, Pageable pageable,
+                                                            @RequestParam(defaultValue = "false") boolean slice) {
+        return ResponseEntity.ok(topicService.findByStatus(status, pageable, slice));
+    }
+
+    @GetMapping(value = "/status/{status}", params = "fields")
+    @Operation(summary = "Buscar tópicos por status com campos escolhidos", description = "fields=id,title,...: o SQL seleciona só as colunas e os joins pedidos")
+    public ResponseEntity<Slice<Map<String, Object>>> findByStatusFields(@PathVariable TopicStatus status,
+                                                                         @RequestParam String fields, Pageable pageable,
+                                                                         @RequestParam(defaultValue = "false") boolean slice) {
+        return ResponseEntity.ok(topicService.findByStatusFields(status, fields, pageable, slice));
     }
     
     @GetMapping("/date-range")
@@ -89,17 +216,71 @@ public class TopicController extends CrudController<Topic, Long, TopicDTO, Topic
         return ResponseEntity.ok(topicService.findByDateRange(start, end, pageable));
     }
 
+    @GetMapping(value = "/date-range", params = "fields")
+    @Operation(summary = "Buscar tópicos por período com campos escolhidos", description = "fields=id,title,...: o SQL seleciona só as colunas e os joins pedidos")
+    public ResponseEntity<Page<Map<String, Object>>> findByDateRangeFields(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam String fields, Pageable pageable) {
+        return ResponseEntity.ok(topicService.findByDateRangeFields(start, end, fields, pageable));
+    }
+
     @Override
     @Operation(summary = "Buscar tópico por ID", description = "Retorna os detalhes completos de um tópico específico")
-    public ResponseEntity<TopicCompleteDTO> findById(@PathVariable("id") Long aLong) {
-        return ResponseEntity.ok(topicService.findComplete(aLong));
+    public ResponseEntity<TopicCompleteDTO> findById(@PathVariable("id") Long aLong, WebRequest request) {
+        TopicDetail detail = topicService.findDetail(aLong);
+        if (request.checkNotModified(detail.tag())) return null;
+        return ResponseEntity.ok().cacheControl(cacheControl()).body(detail.topic());
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Eventos de todos os tópicos (SSE)", description = "Criação, edição, exclusão, respostas e soluções; envie Last-Event-ID para retomar")
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return topicEventStream.subscribe(null, lastEventId);
+    }
+
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Eventos de um tópico (SSE)", description = "Substitui o polling de respostas; envie Last-Event-ID para retomar")
+    public SseEmitter streamTopicEvents(@PathVariable("id") Long id,
+                                        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        if (!topicService.existsById(id)) throw new EntityNotFoundException("Topic with id " + id + " not exist!");
+        return topicEventStream.subscribe(id, lastEventId);
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    @Operation(summary = "Buscar tópico com campos escolhidos", description = "fields=id,title,...: o SQL seleciona só as colunas e os joins pedidos")
+    public ResponseEntity<Map<String, Object>> findByIdFields(@PathVariable("id") Long id, @RequestParam String fields) {
+        return ResponseEntity.ok(topicService.findCompleteFields(id, fields));
     }
 
     @GetMapping("/{id}/answers")
     @Operation(summary = "Listar respostas de um tópico", description = "Retorna todas as respostas associadas a um tópico específico")
-    public ResponseEntity<Page<AnswerSlim>> findAnswersByTopic(@PathVariable("id") Long id, Pageable pageable) {
-        Page<AnswerSlim> answers = answerService.findAllByTopicId(id, pageable);
-        return ResponseEntity.ok(answers);
+    public ResponseEntity<Slice<AnswerSlim>> findAnswersByTopic(@PathVariable("id") Long id, Pageable pageable,
+                                                                @RequestParam(defaultValue = "false") boolean slice,
+                                                                WebRequest request) {
+        if (request.checkNotModified(answerService.listingTagByTopicId(id))) return null;
+        Slice<AnswerSlim> answers = slice
+                ? answerService.findSliceByTopicId(id, pageable)
+                : answerService.findAllByTopicId(id, pageable);
+        return ResponseEntity.ok().cacheControl(cacheControl()).body(answers);
+    }
+
+    @GetMapping(value = "/{id}/answers", params = {"fields", "!cursor"})
+    @Operation(summary = "Listar respostas com campos escolhidos", description = "fields=id,message,createdAt,author")
+    public ResponseEntity<Page<Map<String, Object>>> findAnswersByTopicFields(@PathVariable("id") Long id,
+                                                                              @RequestParam String fields,
+                                                                              Pageable pageable) {
+        return ResponseEntity.ok(answerService.findAllFieldsByTopicId(id, fields, pageable));
+    }
+
+    @GetMapping(value = "/{id}/answers", params = "cursor")
+    @Operation(summary = "Listar respostas de um tópico por cursor", description = "Paginação por cursor opaco (createdAt, id), da resposta mais antiga para a mais recente")
+    public ResponseEntity<CursorPage<AnswerSlim>> findAnswersByTopicAndCursor(@PathVariable("id") Long id,
+                                                                              @RequestParam(required = false) String cursor,
+                                                                              @RequestParam(defaultValue = "20") int size,
+                                                                              @RequestParam(required = false) String fields) {
+        rejectFields(fields, "listagens por cursor");
+        return ResponseEntity.ok(answerService.findAllByTopicIdAndCursor(id, cursor, size));
     }
 
     @Transactional
@@ -136,6 +317,20 @@ public class TopicController extends CrudController<Topic, Long, TopicDTO, Topic
     @Operation(summary = "Excluir tópico", description = "Remove um tópico do fórum")
     @SecurityRequirement(name = "bearer-key")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
-        return super.delete(id);
+        topicService.deleteById(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Sem @Transactional: cada lote é confirmado separadamente pelo TopicService
+    @PostMapping("/bulk-delete")
+    @Operation(summary = "Excluir tópicos em lote", description = "Remove tópicos por lista de ids ou por filtro, em lotes com transações independentes")
+    @SecurityRequirement(name = "bearer-key")
+    public ResponseEntity<BulkDeleteResponseDTO> bulkDelete(@RequestBody TopicBulkDeleteDTO dto) {
+        return ResponseEntity.ok(new BulkDeleteResponseDTO(topicService.bulkDelete(dto)));
+    }
+
+    // Listagens sem suporte a fields recusam o parâmetro em vez de ignorá-lo
+    private static void rejectFields(String fields, String listing) {
+        if (fields != null) throw InvalidFieldsException.unsupported(listing);
     }
 }
@@ -18,7 +18,9 @@ public class CourseConverter implements CrudConverter<Course, CourseDTO, CourseR
     public Course dtoCadToEntity(CourseDTO dtocad) {
         Course course = new Course();
         course.setName(dtocad.getNome());
-        course.setSubcategory(subcategoryRepository.getReferenceById(dtocad.getSubcategoryId()));
+        // Ausente só no PATCH (POST e PUT validam @NotNull): o curso mantém a subcategoria atual
+        if (dtocad.getSubcategoryId() != null)
+            course.setSubcategory(subcategoryRepository.getReferenceById(dtocad.getSubcategoryId()));
         return course;
     }
 
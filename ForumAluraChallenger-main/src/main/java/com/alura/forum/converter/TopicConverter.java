@@ -1,6 +1,7 @@
 package com.alura.forum.converter;
 
 import com.alura.forum.core.crud.CrudConverter;
+import com.alura.forum.infra.cache.ReferenceDataSnapshot;
 import com.alura.forum.model.dto.request.TopicDTO;
 import com.alura.forum.model.dto.response.TopicResponseDTO;
 import com.alura.forum.model.entity.Category;
@@ -27,12 +28,24 @@ public class TopicConverter implements CrudConverter<Topic, TopicDTO, TopicRespo
     SubcategoryConverter subcategoryConverter;
     SubcategoryService subcategoryService;
 
+    ReferenceDataSnapshot referenceData;
+
     @Override
     public Topic dtoCadToEntity(TopicDTO dtocad) {
         Topic topic = new Topic();
         topic.setTitle(dtocad.getTitle());
         topic.setMessage(dtocad.getMessage());
         if (dtocad.getCourseID() != null) {
+            // Pais vindos da cópia em memória: só proxies, sem consulta; senão navega pela entidade
+            long subcategoryId = referenceData.subcategoryOfCourse(dtocad.getCourseID());
+            long categoryId = subcategoryId == ReferenceDataSnapshot.NONE ? ReferenceDataSnapshot.NONE
+                    : referenceData.categoryOfSubcategory(subcategoryId);
+            if (categoryId != ReferenceDataSnapshot.NONE) {
+                topic.setCourse(courseService.getReferenceById(dtocad.getCourseID()));
+                topic.setSubcategory(subcategoryService.getReferenceById(subcategoryId));
+                topic.setCategory(categoryService.getReferenceById(categoryId));
+                return topic;
+            }
             Course course = courseService.getReferenceByIdIfExist(dtocad.getCourseID());
             Subcategory subcategory = course.getSubcategory();
             Category category = subcategory.getCategory();
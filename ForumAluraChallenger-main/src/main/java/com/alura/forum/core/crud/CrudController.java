@@ -1,16 +1,25 @@
 package com.alura.forum.core.crud;
 
-import jakarta.persistence.EntityNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import java.util.List;
+import java.time.Duration;
+import java.util.function.Consumer;
 
 public abstract class CrudController<E extends CrudDomain<ID>, ID, DTOCAD, DTORES> {
 
@@ -18,22 +27,48 @@ public abstract class CrudController<E extends CrudDomain<ID>, ID, DTOCAD, DTORE
     protected CrudService<E, ID> service;
     @Autowired
     protected CrudConverter<E, DTOCAD, DTORES> converter;
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    @Value("${api.http.cache.max-age:0s}")
+    protected Duration cacheMaxAge;
 
+    // Validadores vêm de consultas de versão; com If-None-Match válido não há consulta completa nem serialização
     @GetMapping
-    public ResponseEntity<?> findAll(Pageable pageable) {
-        List<E> listEntity = service.findAll();
-        List<DTORES> listDTORes = listEntity
-                .stream()
-                .map(converter::entityToDTOResponse)
-                .toList();
-        return ResponseEntity.ok(listDTORes);
+    public ResponseEntity<?> findAll(Pageable pageable, WebRequest request) {
+        if (request.checkNotModified(VersionStamp.weak(service.versionStamp().tag()))) return null;
+        Page<DTORES> pageDTORes = service.findAll(pageable)
+                .map(converter::entityToDTOResponse);
+        return ResponseEntity.ok().cacheControl(cacheControl()).body(pageDTORes);
+    }
+
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public void streamAll(HttpServletResponse response) throws IOException {
+        writeNdjson(response, rows -> service.streamAll(entity -> rows.accept(converter.entityToDTOResponse(entity))));
+    }
+
+    // Uma linha JSON por objeto entregue pelo produtor, escrita assim que chega
+    protected void writeNdjson(HttpServletResponse response, Consumer<Consumer<Object>> producer) throws IOException {
+        response.setContentType("application/x-ndjson");
+        try (SequenceWriter writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .writeValues(response.getOutputStream())) {
+            producer.accept(row -> {
+                try {
+                    writer.write(row);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> findById(@PathVariable("id") ID aLong) {
+    public ResponseEntity<?> findById(@PathVariable("id") ID aLong, WebRequest request) {
+        if (request.checkNotModified(VersionStamp.strong(service.findVersion(aLong)))) return null;
         E entity = service.findById(aLong);
         DTORES dtoRes = converter.entityToDTOResponse(entity);
-        return ResponseEntity.ok(dtoRes);
+        return ResponseEntity.ok().cacheControl(cacheControl()).body(dtoRes);
     }
 
     @Transactional
@@ -59,12 +94,22 @@ public abstract class CrudController<E extends CrudDomain<ID>, ID, DTOCAD, DTORE
         return ResponseEntity.ok(a);
     }
 
+    // Corpo parcial: campos ausentes não são alterados
+    @Transactional
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patch(@RequestBody DTOCAD dto, @PathVariable("id") ID id) {
+        service.patch(id, converter.dtoCadToEntity(dto));
+        return ResponseEntity.noContent().build();
+    }
+
     @Transactional
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable("id") ID id) {
-        if (!service.existsById(id)) throw new EntityNotFoundException("Resource with id " + id + " not exist!");
         service.deleteById(id);
         return ResponseEntity.noContent().build();
     }
 
-}
\ No newline at end of file
+    protected CacheControl cacheControl() {
+        return CacheControl.maxAge(cacheMaxAge).cachePublic().mustRevalidate();
+    }
+}
@@ -1,5 +1,9 @@
 package com.alura.forum.core.crud;
 
+import java.time.LocalDateTime;
+
 public interface CrudDomain<ID> {
     ID getId();
+
+    LocalDateTime getVersion();
 }
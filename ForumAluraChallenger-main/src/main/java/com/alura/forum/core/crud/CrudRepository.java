@@ -1,8 +1,37 @@
 package com.alura.forum.core.crud;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @NoRepositoryBean
 public interface CrudRepository<E, ID> extends JpaRepository<E, ID> {
+
+    // Cursor do lado do servidor (fetch size Integer.MIN_VALUE no Connector/J), sem snapshot das entidades.
+    // Enquanto o cursor está aberto a conexão não aceita outra consulta: só serve a entidades sem associações
+    // EAGER; as demais expõem /stream a partir de projeções planas (ver TopicController e AnswerController)
+    @QueryHints({@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")})
+    Stream<E> streamAllBy();
+
+    // Remoção em um único comando; 0 linhas afetadas indica id inexistente
+    @Modifying
+    @Query("DELETE FROM #{#entityName} e WHERE e.id = :id")
+    int removeById(@Param("id") ID id);
+
+    // Validadores para GET condicional: consultas só em índices, sem carregar a entidade
+    @Query("SELECT e.version FROM #{#entityName} e WHERE e.id = :id")
+    Optional<LocalDateTime> findVersionById(@Param("id") ID id);
+
+    @Query("SELECT new com.alura.forum.core.crud.VersionStamp(COUNT(e), MAX(e.version)) FROM #{#entityName} e")
+    VersionStamp findVersionStamp();
 }
@@ -1,17 +1,54 @@
 package com.alura.forum.core.crud;
 
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public abstract class CrudService<E, ID> {
 
     @Autowired
     protected CrudRepository<E, ID> repository;
 
-    public List<E> findAll() {
-        return repository.findAll();
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    @Value("${api.multi-get.max-ids:100}")
+    protected int multiGetMaxIds;
+
+    @SuppressWarnings("unchecked")
+    protected final Class<E> entityType = (Class<E>) GenericTypeResolver.resolveTypeArguments(getClass(), CrudService.class)[0];
+
+    public Page<E> findAll(Pageable pageable) {
+        return repository.findAll(pageable);
+    }
+
+    // Percorre a tabela inteira sem manter as entidades no contexto de persistência
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<E> consumer) {
+        try (Stream<E> stream = repository.streamAllBy()) {
+            stream.forEach(entity -> {
+                consumer.accept(entity);
+                entityManager.detach(entity);
+            });
+        }
     }
 
     public E findById(ID id) {
@@ -19,6 +56,24 @@ public abstract class CrudService<E, ID> {
                 .orElseThrow(() -> new EntityNotFoundException("Resource with id " + id + " not exist!"));
     }
 
+    // Ids de uma busca em lote: sem nulos nem repetidos, na ordem pedida e limitados a multiGetMaxIds
+    protected List<ID> multiGetIds(List<ID> ids) {
+        List<ID> distinct = ids == null ? List.of() : ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinct.isEmpty()) throw new IllegalArgumentException("Informe ao menos um id");
+        if (distinct.size() > multiGetMaxIds)
+            throw new IllegalArgumentException("Máximo de " + multiGetMaxIds + " ids por requisição");
+        return distinct;
+    }
+
+    public LocalDateTime findVersion(ID id) {
+        return repository.findVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Resource with id " + id + " not exist!"));
+    }
+
+    public VersionStamp versionStamp() {
+        return repository.findVersionStamp();
+    }
+
     public E save(E entity) {
         return repository.save(entity);
     }
@@ -31,8 +86,35 @@ public abstract class CrudService<E, ID> {
 
     protected abstract E editEntity(E oldEntity, E entityToSave);
 
+    // Atualização parcial em um único UPDATE: só os atributos de patchableAttributes() informados (não nulos)
+    public void patch(ID id, E partial) {
+        BeanWrapper source = PropertyAccessorFactory.forBeanPropertyAccess(partial);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<E> update = cb.createCriteriaUpdate(entityType);
+        Root<E> root = update.from(entityType);
+        boolean changed = false;
+        for (String attribute : patchableAttributes()) {
+            Object value = source.getPropertyValue(attribute);
+            if (value == null) continue;
+            if (value instanceof String text && text.isBlank())
+                throw new IllegalArgumentException("O campo " + attribute + " não pode ser vazio");
+            update.set(root.get(attribute), value);
+            changed = true;
+        }
+        if (!changed) throw new IllegalArgumentException("Nenhum campo alterável foi informado");
+        update.set(root.<LocalDateTime>get("version"), LocalDateTime.now());
+        update.where(cb.equal(root.get("id"), id));
+        if (entityManager.createQuery(update).executeUpdate() == 0)
+            throw new EntityNotFoundException("Resource with id " + id + " not exist!");
+    }
+
+    // Atributos que o PATCH pode alterar; por padrão nenhum
+    protected Set<String> patchableAttributes() {
+        return Set.of();
+    }
+
     public void deleteById(ID id) {
-        repository.deleteById(id);
+        if (repository.removeById(id) == 0) throw new EntityNotFoundException("Resource with id " + id + " not exist!");
     }
 
     public void delete(E e) {
@@ -0,0 +1,29 @@
+package com.alura.forum.core.crud;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Quantidade de linhas e maior versão de uma tabela (ou de um recorte dela).
+ * Qualquer inserção, edição ou remoção altera pelo menos um dos dois valores.
+ */
+public record VersionStamp(Long count, LocalDateTime version) {
+
+    public String tag() {
+        return count + "." + micros(version);
+    }
+
+    // ETag fraca para listagens: o conteúdo é equivalente, não necessariamente idêntico byte a byte
+    public static String weak(String... tags) {
+        return "W/\"" + String.join("-", tags) + "\"";
+    }
+
+    public static String strong(LocalDateTime version) {
+        return "\"" + micros(version) + "\"";
+    }
+
+    private static String micros(LocalDateTime version) {
+        if (version == null) return "0";
+        return Long.toString(version.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + version.getNano() / 1_000);
+    }
+}
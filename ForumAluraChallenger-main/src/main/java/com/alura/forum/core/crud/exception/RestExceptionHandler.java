@@ -1,8 +1,12 @@
 package com.alura.forum.core.crud.exception;
 
+import com.alura.forum.infra.security.PasswordHashingUnavailableException;
+import com.alura.forum.repository.fields.InvalidFieldsException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -71,6 +75,19 @@ public class RestExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(err);
     }
 
+    @ExceptionHandler(InvalidFieldsException.class)
+    private ResponseEntity<StandardError> handleInvalidFields(InvalidFieldsException ex, HttpServletRequest request) {
+        String error = "Campos inválidos";
+        StandardError err = new StandardError(
+            HttpStatus.BAD_REQUEST.value(), 
+            error, 
+            ex.getMessage(),
+            request.getRequestURI(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(err);
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     private ResponseEntity<StandardError> handleAccessDenied(AccessDeniedException ex, HttpServletRequest request) {
         String error = "Acesso negado";
@@ -110,6 +127,19 @@ public class RestExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(err);
     }
     
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    private ResponseEntity<StandardError> handlePasswordHashingUnavailable(PasswordHashingUnavailableException ex, HttpServletRequest request) {
+        String error = "Serviço indisponível";
+        StandardError err = new StandardError(
+            HttpStatus.SERVICE_UNAVAILABLE.value(), 
+            error, 
+            ex.getMessage(),
+            request.getRequestURI(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(err);
+    }
+    
     @ExceptionHandler(HttpMessageNotReadableException.class)
     private ResponseEntity<StandardError> handleHttpMessageNotReadable(HttpMessageNotReadableException ex, HttpServletRequest request) {
         String error = "Erro no formato da requisição";
@@ -149,6 +179,19 @@ public class RestExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(err);
     }
     
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    private ResponseEntity<StandardError> handleOptimisticLockingFailure(OptimisticLockingFailureException ex, HttpServletRequest request) {
+        String error = "Conflito de edição";
+        StandardError err = new StandardError(
+            HttpStatus.CONFLICT.value(), 
+            error, 
+            "O recurso foi alterado por outra requisição; recarregue e tente novamente",
+            request.getRequestURI(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(err);
+    }
+    
     @ExceptionHandler(Exception.class)
     private ResponseEntity<StandardError> handleGenericException(Exception ex, HttpServletRequest request) {
         String error = "Erro interno do servidor";
@@ -0,0 +1,46 @@
+package com.alura.forum.core.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Posição opaca de paginação por chave (createdAt, id).
+ * NEXT busca os registros seguintes na ordem da listagem e PREV os anteriores.
+ */
+public record Cursor(Direction direction, LocalDateTime createdAt, Long id) {
+
+    public enum Direction {NEXT, PREV}
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public static Cursor next(LocalDateTime createdAt, Long id) {
+        return new Cursor(Direction.NEXT, createdAt, id);
+    }
+
+    public boolean isForward() {
+        return direction == Direction.NEXT;
+    }
+
+    public Cursor reverse() {
+        return new Cursor(isForward() ? Direction.PREV : Direction.NEXT, createdAt, id);
+    }
+
+    public String encode() {
+        String raw = direction.name().charAt(0) + "|" + createdAt + "|" + id;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Cursor vazio ou ausente representa a primeira página
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        try {
+            String[] parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split("\\|");
+            Direction direction = parts[0].equals("P") ? Direction.PREV : Direction.NEXT;
+            return new Cursor(direction, LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Cursor de paginação inválido");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.alura.forum.core.pagination;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPage<T>(List<T> content, String next, String prev) {
+
+    /**
+     * Monta a página a partir de até {@code size + 1} linhas buscadas a partir do cursor.
+     * A linha extra apenas indica se existe mais uma página naquela direção.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, Cursor cursor, int size, Function<T, Cursor> keyOf) {
+        boolean backward = cursor != null && !cursor.isForward();
+        boolean hasMore = rows.size() > size;
+        List<T> content = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        if (backward) Collections.reverse(content);
+        if (content.isEmpty()) return new CursorPage<>(content, null, null);
+
+        boolean hasNext = backward || hasMore;
+        boolean hasPrev = backward ? hasMore : cursor != null;
+        String next = hasNext ? keyOf.apply(content.getLast()).encode() : null;
+        String prev = hasPrev ? keyOf.apply(content.getFirst()).reverse().encode() : null;
+        return new CursorPage<>(content, next, prev);
+    }
+}
@@ -0,0 +1,121 @@
+package com.alura.forum.infra.cache;
+
+import com.alura.forum.model.dto.response.CategoryTreeResponseDTO;
+import com.alura.forum.model.dto.response.CourseResponseDTO;
+import com.alura.forum.model.dto.response.SubcategoryTreeResponseDTO;
+import com.alura.forum.model.event.ReferenceDataChangedEvent;
+import com.alura.forum.model.projections.CategoryTreeRow;
+import com.alura.forum.repository.CategoryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Árvore categoria -> subcategoria -> curso já serializada em JSON (e em gzip), com ETag forte.
+ * Reconstruída sob demanda apenas depois de uma escrita nos dados de referência.
+ */
+@Component
+public class CategoryTreeCache {
+
+    public record Snapshot(byte[] json, byte[] gzip, String etag) {
+    }
+
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public CategoryTreeCache(CategoryRepository categoryRepository, ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (current != null) return current;
+        buildLock.lock();
+        try {
+            if (snapshot != null) return snapshot;
+            long start = generation.get();
+            Snapshot built = build();
+            if (generation.get() == start) snapshot = built;
+            return built;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot build() {
+        List<CategoryTreeRow> rows = readOnlyTransaction.execute(status -> categoryRepository.findTreeRows());
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(assemble(rows));
+            return new Snapshot(json, gzip(json), sha256(json));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Falha ao serializar a árvore de categorias", ex);
+        }
+    }
+
+    private static List<CategoryTreeResponseDTO> assemble(List<CategoryTreeRow> rows) {
+        Map<Long, CategoryTreeResponseDTO> categories = new LinkedHashMap<>();
+        Map<Long, SubcategoryTreeResponseDTO> subcategories = new LinkedHashMap<>();
+        for (CategoryTreeRow row : rows) {
+            CategoryTreeResponseDTO category = categories.computeIfAbsent(row.categoryId(),
+                    id -> new CategoryTreeResponseDTO(id, row.categoryName(), new ArrayList<>()));
+            if (row.subcategoryId() == null) continue;
+            SubcategoryTreeResponseDTO subcategory = subcategories.computeIfAbsent(row.subcategoryId(), id -> {
+                SubcategoryTreeResponseDTO created = new SubcategoryTreeResponseDTO(id, row.subcategoryName(), new ArrayList<>());
+                category.getSubcategories().add(created);
+                return created;
+            });
+            if (row.courseId() != null) subcategory.getCourses().add(new CourseResponseDTO(row.courseId(), row.courseName()));
+        }
+        return List.copyOf(categories.values());
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
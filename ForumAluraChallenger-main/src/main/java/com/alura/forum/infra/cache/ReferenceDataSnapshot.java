@@ -0,0 +1,124 @@
+package com.alura.forum.infra.cache;
+
+import com.alura.forum.model.event.ReferenceDataChangedEvent;
+import com.alura.forum.model.projections.CategoryTreeRow;
+import com.alura.forum.repository.CategoryRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cópia imutável da hierarquia categoria -> subcategoria -> curso, em arrays de long ordenados.
+ * Responde existência e pai de um id sem ir ao banco; é descartada a cada escrita nos dados de
+ * referência e reconstruída na próxima consulta.
+ */
+@Component
+public class ReferenceDataSnapshot {
+
+    public static final long NONE = -1L;
+
+    // Ids ordenados; o pai de ids[i] fica em parents[i]
+    private record Index(long[] categoryIds,
+                         long[] subcategoryIds, long[] subcategoryParents,
+                         long[] courseIds, long[] courseParents) {
+    }
+
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<Index> index = new AtomicReference<>();
+
+    public ReferenceDataSnapshot(CategoryRepository categoryRepository, PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public boolean categoryExists(long id) {
+        return Arrays.binarySearch(index().categoryIds(), id) >= 0;
+    }
+
+    public boolean subcategoryExists(long id) {
+        return Arrays.binarySearch(index().subcategoryIds(), id) >= 0;
+    }
+
+    public boolean courseExists(long id) {
+        return Arrays.binarySearch(index().courseIds(), id) >= 0;
+    }
+
+    // NONE quando o id não está na cópia (inexistente ou sem pai)
+    public long categoryOfSubcategory(long subcategoryId) {
+        Index current = index();
+        return parentOf(current.subcategoryIds(), current.subcategoryParents(), subcategoryId);
+    }
+
+    public long subcategoryOfCourse(long courseId) {
+        Index current = index();
+        return parentOf(current.courseIds(), current.courseParents(), courseId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        generation.incrementAndGet();
+        index.set(null);
+    }
+
+    private Index index() {
+        Index current = index.get();
+        if (current != null) return current;
+        buildLock.lock();
+        try {
+            current = index.get();
+            if (current != null) return current;
+            long start = generation.get();
+            Index built = build();
+            if (generation.get() == start) index.set(built);
+            return built;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private Index build() {
+        List<CategoryTreeRow> rows = readOnlyTransaction.execute(status -> categoryRepository.findTreeRows());
+        Map<Long, Long> subcategories = new HashMap<>();
+        Map<Long, Long> courses = new HashMap<>();
+        long[] categoryIds = rows.stream().mapToLong(CategoryTreeRow::categoryId).distinct().sorted().toArray();
+        for (CategoryTreeRow row : rows) {
+            if (row.subcategoryId() == null) continue;
+            subcategories.put(row.subcategoryId(), row.categoryId());
+            if (row.courseId() != null) courses.put(row.courseId(), row.subcategoryId());
+        }
+        long[] subcategoryIds = sortedKeys(subcategories);
+        long[] courseIds = sortedKeys(courses);
+        return new Index(categoryIds,
+                subcategoryIds, parents(subcategoryIds, subcategories),
+                courseIds, parents(courseIds, courses));
+    }
+
+    private static long[] sortedKeys(Map<Long, Long> parents) {
+        return parents.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    private static long[] parents(long[] ids, Map<Long, Long> parents) {
+        long[] result = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) result[i] = parents.get(ids[i]);
+        return result;
+    }
+
+    private static long parentOf(long[] ids, long[] parents, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        return position >= 0 ? parents[position] : NONE;
+    }
+}
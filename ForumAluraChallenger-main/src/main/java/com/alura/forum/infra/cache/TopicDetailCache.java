@@ -0,0 +1,99 @@
+package com.alura.forum.infra.cache;
+
+import com.alura.forum.model.event.ReferenceDataChangedEvent;
+import com.alura.forum.model.event.TopicEvent;
+import com.alura.forum.model.projections.TopicDetail;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Cache read-through (W-TinyLFU, limitado por entradas) da visão detalhada dos tópicos servida em GET /topics/{id},
+ * guardada junto da ETag calculada na mesma consulta.
+ * Invalidado pelos {@link TopicEvent} após o commit; desligável por ambiente com api.cache.topic-detail.enabled.
+ */
+@Component
+public class TopicDetailCache {
+
+    private final boolean enabled;
+    private final Cache<Long, TopicDetail> cache;
+    private final Timer loadTimer;
+    // Cargas em andamento por id: a invalidação remove o token e a carga iniciada antes dela não grava no cache.
+    // Só o próprio id é afetado; invalidar outro tópico não descarta a carga
+    private final ConcurrentMap<Long, Object> loading = new ConcurrentHashMap<>();
+
+    public TopicDetailCache(MeterRegistry meterRegistry,
+                            @Value("${api.cache.topic-detail.enabled:true}") boolean enabled,
+                            @Value("${api.cache.topic-detail.max-size:10000}") long maxSize,
+                            @Value("${api.cache.topic-detail.ttl:10m}") Duration ttl) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.loadTimer = Timer.builder("cache.topic-detail.load")
+                .description("Tempo de carga de um tópico ausente no cache")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "topicDetailCache");
+    }
+
+    // getIfPresent + put em vez de get(key, loader): a consulta não roda dentro do lock do mapa
+    public TopicDetail get(Long id, Function<Long, TopicDetail> loader) {
+        if (!enabled) return loader.apply(id);
+        TopicDetail cached = cache.getIfPresent(id);
+        if (cached != null) return cached;
+        Object token = new Object();
+        loading.put(id, token);
+        TopicDetail loaded;
+        try {
+            loaded = loadTimer.record(() -> loader.apply(id));
+        } catch (RuntimeException ex) {
+            loading.remove(id, token);
+            throw ex;
+        }
+        // Gravação e remoção do token sob o lock da chave, atômicas em relação ao remove de invalidate
+        loading.computeIfPresent(id, (key, current) -> {
+            if (current != token) return current;
+            if (loaded != null) cache.put(id, loaded);
+            return null;
+        });
+        return loaded;
+    }
+
+    // null quando ausente (ou cache desligado); usado pela busca em lote, que carrega as faltas com um IN
+    public TopicDetail getIfPresent(Long id) {
+        return enabled ? cache.getIfPresent(id) : null;
+    }
+
+    public void invalidate(Long id) {
+        loading.remove(id);
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        loading.clear();
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTopicEvent(TopicEvent event) {
+        invalidate(event.topicId());
+    }
+
+    // Nomes de categoria, subcategoria e curso estão embutidos em todos os detalhes
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        invalidateAll();
+    }
+}
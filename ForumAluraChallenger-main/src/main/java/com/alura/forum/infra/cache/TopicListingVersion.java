@@ -0,0 +1,96 @@
+package com.alura.forum.infra.cache;
+
+import com.alura.forum.core.crud.VersionStamp;
+import com.alura.forum.model.event.ReferenceDataChangedEvent;
+import com.alura.forum.model.event.TopicEvent;
+import com.alura.forum.repository.CategoryRepository;
+import com.alura.forum.repository.CourseRepository;
+import com.alura.forum.repository.Subcat;
+import com.alura.forum.repository.TopicRepository;
+import com.alura.forum.service.TopicCountService;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ETag das listagens de tópicos sem consulta ao banco no GET: maior versão de topic e versões de category,
+ * subcategory e course (índices da V10) guardadas em memória, mais o total do {@link TopicCountService}.
+ * As versões são relidas após o commit de cada {@link TopicEvent} (só a de topic) ou {@link ReferenceDataChangedEvent}
+ * e a cada api.topics.count.refresh-interval-ms, para escritas de outras instâncias. Como só dependem dos dados,
+ * a ETag é a mesma em todas as instâncias e entre reinícios, e a releitura sem escritas não a altera.
+ */
+@Component
+public class TopicListingVersion {
+
+    private final TopicRepository topicRepository;
+    private final CategoryRepository categoryRepository;
+    private final Subcat subcategoryRepository;
+    private final CourseRepository courseRepository;
+    private final TopicCountService topicCountService;
+
+    // Releituras em série: uma mais antiga não sobrescreve a mais nova
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile Versions versions;
+
+    public TopicListingVersion(TopicRepository topicRepository, CategoryRepository categoryRepository,
+                               Subcat subcategoryRepository, CourseRepository courseRepository,
+                               TopicCountService topicCountService) {
+        this.topicRepository = topicRepository;
+        this.categoryRepository = categoryRepository;
+        this.subcategoryRepository = subcategoryRepository;
+        this.courseRepository = courseRepository;
+        this.topicCountService = topicCountService;
+    }
+
+    public String tag() {
+        Versions current = versions;
+        if (current == null) {
+            refresh();
+            current = versions;
+        }
+        // Remoções não mudam a maior versão: o total entra na ETag
+        return VersionStamp.weak(new VersionStamp(topicCountService.total(), current.topic()).tag(), current.reference());
+    }
+
+    @Scheduled(initialDelayString = "${api.topics.count.refresh-interval-ms:60000}",
+            fixedDelayString = "${api.topics.count.refresh-interval-ms:60000}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            versions = new Versions(topicRepository.findMaxVersion(), referenceVersion());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // Escrita em tópico: só a maior versão de topic é relida, os dados de referência não mudaram
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTopicEvent(TopicEvent event) {
+        refreshLock.lock();
+        try {
+            // Ainda sem leitura: o primeiro tag() lê tudo
+            Versions current = versions;
+            if (current != null) versions = new Versions(topicRepository.findMaxVersion(), current.reference());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        refresh();
+    }
+
+    // Nomes de categoria, subcategoria e curso estão embutidos nas linhas das listagens
+    private String referenceVersion() {
+        return String.join("-", categoryRepository.findVersionStamp().tag(),
+                subcategoryRepository.findVersionStamp().tag(),
+                courseRepository.findVersionStamp().tag());
+    }
+
+    private record Versions(LocalDateTime topic, String reference) {
+    }
+}
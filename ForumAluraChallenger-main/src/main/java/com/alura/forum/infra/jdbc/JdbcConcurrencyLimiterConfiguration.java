@@ -0,0 +1,48 @@
+package com.alura.forum.infra.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Envolve o DataSource do Hikari em um {@link LimitedDataSource} nos dois modos de thread.
+ * <p>
+ * Os ids vêm de tabelas *_seq e o Hibernate busca cada bloco novo em uma segunda conexão, aberta pela
+ * thread que já segura a da transação. Por isso as permissões deixam {@code api.jdbc.reserved-connections}
+ * conexões do pool de fora: só as aquisições aninhadas chegam a elas, e o pool não trava com todas as
+ * conexões presas a threads esperando a segunda. No modo de plataforma isso reduz o acesso simultâneo ao
+ * banco para {@code maximum-pool-size - reserved-connections}, e o excedente espera no semáforo (FIFO) em
+ * vez de na fila do Hikari, com o mesmo connection-timeout. No modo de threads virtuais
+ * ({@code spring.threads.virtual.enabled=true}) o semáforo é também onde as requisições excedentes estacionam.
+ */
+@Configuration
+public class JdbcConcurrencyLimiterConfiguration {
+
+    @Bean
+    public static BeanPostProcessor jdbcConcurrencyLimiter(ObjectProvider<MeterRegistry> meterRegistry,
+                                                           @Value("${api.jdbc.max-concurrency:0}") int maxConcurrency,
+                                                           @Value("${api.jdbc.reserved-connections:1}") int reserved) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) return bean;
+                int permits = permits(hikari.getMaximumPoolSize(), maxConcurrency, reserved);
+                // A espera reaproveita o connection-timeout do Hikari
+                Duration timeout = Duration.ofMillis(hikari.getConnectionTimeout());
+                return new LimitedDataSource(hikari, permits, timeout, meterRegistry.getObject());
+            }
+        };
+    }
+
+    // max-concurrency 0 = acompanha o maximum-pool-size menos a reserva; nunca acima disso, nem abaixo de 1
+    static int permits(int poolSize, int maxConcurrency, int reserved) {
+        int available = Math.max(1, poolSize - reserved);
+        return maxConcurrency > 0 ? Math.min(maxConcurrency, available) : available;
+    }
+}
@@ -0,0 +1,123 @@
+package com.alura.forum.infra.jdbc;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limita quantas threads usam conexões ao mesmo tempo com um semáforo justo (FIFO) menor que o pool.
+ * As requisições excedentes ficam estacionadas aqui em vez de disputar o pool; a permissão é devolvida
+ * quando a conexão é fechada.
+ * <p>
+ * Uma segunda conexão pedida pela thread que já tem uma aberta (o Hibernate busca o próximo bloco das
+ * tabelas *_seq em uma conexão isolada, e callbacks pós-commit consultam o banco antes de a conexão da
+ * transação ser devolvida) não passa pelo semáforo: usa as conexões que sobram no pool. Se esperasse uma
+ * permissão, as threads que a seguram — paradas no lock do otimizador de ids ou no lock de linha desta
+ * transação — nunca a liberariam.
+ */
+public class LimitedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+    private final Timer acquireTimer;
+    // Conexões abertas pela thread corrente através deste DataSource
+    private final ThreadLocal<AtomicInteger> openByThread = ThreadLocal.withInitial(AtomicInteger::new);
+
+    public LimitedDataSource(DataSource target, int maxConcurrency, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeout = acquireTimeout;
+        this.acquireTimer = Timer.builder("jdbc.limiter.acquire")
+                .description("Espera por uma permissão de conexão")
+                .register(meterRegistry);
+        Gauge.builder("jdbc.limiter.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads aguardando uma permissão de conexão")
+                .register(meterRegistry);
+        Gauge.builder("jdbc.limiter.available", permits, Semaphore::availablePermits)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return limited(super::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return limited(() -> super.getConnection(username, password));
+    }
+
+    private Connection limited(ConnectionSource source) throws SQLException {
+        AtomicInteger open = openByThread.get();
+        boolean nested = open.get() > 0;
+        if (!nested) acquire();
+        try {
+            Connection connection = source.get();
+            open.incrementAndGet();
+            return releasingOnClose(connection, open, !nested);
+        } catch (SQLException | RuntimeException ex) {
+            if (!nested) permits.release();
+            throw ex;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Espera por conexão interrompida", ex);
+        } finally {
+            acquireTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) throw new SQLTransientConnectionException("Tempo limite excedido aguardando conexão com o banco");
+    }
+
+    // close() é idempotente para o semáforo: a permissão volta uma única vez
+    private Connection releasingOnClose(Connection connection, AtomicInteger open, boolean holdsPermit) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                open.decrementAndGet();
+                                if (holdsPermit) permits.release();
+                            }
+                        }
+                        yield null;
+                    }
+                    default -> {
+                        try {
+                            yield method.invoke(connection, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        }
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,64 @@
+package com.alura.forum.infra.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenização para textos em português: minúsculas, remoção de acentos, stopwords
+ * e um stemmer leve (plurais e alguns sufixos comuns).
+ */
+public final class PortugueseAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "o", "as", "os", "um", "uma", "uns", "umas", "de", "do", "da", "dos", "das",
+            "em", "no", "na", "nos", "nas", "por", "para", "pra", "com", "sem", "e", "ou",
+            "que", "se", "ao", "aos", "como", "mais", "mas", "ja", "nao", "sim", "eu", "voce",
+            "ele", "ela", "isso", "isto", "esse", "essa", "este", "esta", "ser", "ter", "tem",
+            "foi", "sao", "me", "meu", "minha", "seu", "sua", "the", "of", "to", "is", "in");
+
+    private PortugueseAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) return terms;
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String token : SEPARATORS.split(folded)) {
+            if (token.length() < 2 || STOPWORDS.contains(token)) continue;
+            terms.add(stem(token));
+        }
+        return terms;
+    }
+
+    static String stem(String term) {
+        if (term.length() <= 3) return term;
+        term = removePlural(term);
+        if (term.endsWith("mente") && term.length() > 7) return term.substring(0, term.length() - 5);
+        if (term.endsWith("cao") && term.length() > 5) return term.substring(0, term.length() - 3) + "c";
+        if (term.endsWith("dade") && term.length() > 6) return term.substring(0, term.length() - 4);
+        return term;
+    }
+
+    private static String removePlural(String term) {
+        if (term.endsWith("oes") || term.endsWith("aes")) return term.substring(0, term.length() - 3) + "ao";
+        if (term.endsWith("ais")) return term.substring(0, term.length() - 2) + "l";
+        if (term.endsWith("eis")) return term.substring(0, term.length() - 3) + "el";
+        if (term.endsWith("ns")) return term.substring(0, term.length() - 2) + "m";
+        if (term.endsWith("res") || term.endsWith("zes") || term.endsWith("ses"))
+            return term.substring(0, term.length() - 2);
+        if (term.endsWith("s") && !term.endsWith("ss") && !term.endsWith("us") && !term.endsWith("is"))
+            return term.substring(0, term.length() - 1);
+        // Singular sem o "e" final, para ficar no mesmo radical do plural acima (classe e classes -> class)
+        if (term.endsWith("re") || term.endsWith("ze") || term.endsWith("se"))
+            return term.substring(0, term.length() - 1);
+        return term;
+    }
+}
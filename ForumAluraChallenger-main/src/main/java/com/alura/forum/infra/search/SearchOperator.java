@@ -0,0 +1,6 @@
+package com.alura.forum.infra.search;
+
+public enum SearchOperator {
+    AND,
+    OR
+}
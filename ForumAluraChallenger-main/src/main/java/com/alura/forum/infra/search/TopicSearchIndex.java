@@ -0,0 +1,248 @@
+package com.alura.forum.infra.search;
+
+import com.alura.forum.model.event.TopicEvent;
+import com.alura.forum.model.projections.AnswerSearchDocument;
+import com.alura.forum.model.projections.TopicSearchDocument;
+import com.alura.forum.repository.AnswerRepository;
+import com.alura.forum.repository.TopicRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido em memória sobre título, mensagem e respostas dos tópicos.
+ * Construído na inicialização e atualizado pelos {@link TopicEvent} após o commit.
+ */
+@Component
+public class TopicSearchIndex {
+
+    private static final double TITLE_WEIGHT = 3.0;
+    private static final double MESSAGE_WEIGHT = 1.0;
+    private static final double ANSWER_WEIGHT = 0.5;
+    private static final Pattern OR_SEPARATOR = Pattern.compile("\\sOR\\s");
+
+    private final TopicRepository topicRepository;
+    private final AnswerRepository answerRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private volatile boolean ready;
+
+    public TopicSearchIndex(TopicRepository topicRepository, AnswerRepository answerRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.topicRepository = topicRepository;
+        this.answerRepository = answerRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<TopicSearchDocument> topics = topicRepository.streamSearchDocumentsBy()) {
+                    topics.forEach(t -> putTopic(t.id(), t.title(), t.message()));
+                }
+                try (Stream<AnswerSearchDocument> answers = answerRepository.streamSearchDocuments()) {
+                    answers.forEach(a -> putAnswer(a.topicId(), a.message()));
+                }
+            });
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTopicEvent(TopicEvent event) {
+        switch (event.type()) {
+            case CREATED -> topicRepository.findSearchDocumentById(event.topicId())
+                    .ifPresent(t -> indexTopic(t.id(), t.title(), t.message()));
+            // Também publicado na edição e exclusão de respostas: os termos delas vêm de novo do banco
+            case UPDATED -> topicRepository.findSearchDocumentById(event.topicId())
+                    .ifPresent(t -> indexTopic(t.id(), t.title(), t.message(),
+                            answerRepository.findMessagesByTopicId(t.id())));
+            case DELETED -> remove(event.topicId());
+            case ANSWERED -> answerRepository.findMessageById(event.answerId())
+                    .ifPresent(message -> addAnswer(event.topicId(), message));
+            default -> {
+            }
+        }
+    }
+
+    public void indexTopic(Long topicId, String title, String message) {
+        lock.writeLock().lock();
+        try {
+            putTopic(topicId, title, message);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexTopic(Long topicId, String title, String message, List<String> answers) {
+        lock.writeLock().lock();
+        try {
+            putTopic(topicId, title, message);
+            Document document = documents.get(topicId);
+            unlink(topicId, document.terms());
+            document.answers.clear();
+            answers.forEach(answer -> putAnswer(topicId, answer));
+            link(topicId, document.terms());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addAnswer(Long topicId, String message) {
+        lock.writeLock().lock();
+        try {
+            putAnswer(topicId, message);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long topicId) {
+        lock.writeLock().lock();
+        try {
+            Document document = documents.remove(topicId);
+            if (document != null) unlink(topicId, document.terms());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna os ids dos tópicos que atendem à consulta, do mais relevante para o menos relevante.
+     * Termos separados por "OR" na consulta forçam o operador OR; o próprio "OR" não é buscado.
+     */
+    public List<Long> search(String query, SearchOperator operator) {
+        if (OR_SEPARATOR.matcher(query).find()) {
+            operator = SearchOperator.OR;
+            query = OR_SEPARATOR.matcher(query).replaceAll(" ");
+        }
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(PortugueseAnalyzer.analyze(query)));
+        if (terms.isEmpty()) return List.of();
+
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = operator == SearchOperator.AND ? intersect(terms) : union(terms);
+            int total = documents.size();
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Set<Long> posting = postings.get(term);
+                if (posting == null) continue;
+                double idf = Math.log(1.0 + (double) total / posting.size());
+                for (Long topicId : candidates) {
+                    if (!posting.contains(topicId)) continue;
+                    Document document = documents.get(topicId);
+                    double tf = TITLE_WEIGHT * document.title.getOrDefault(term, 0)
+                            + MESSAGE_WEIGHT * document.message.getOrDefault(term, 0)
+                            + ANSWER_WEIGHT * document.answers.getOrDefault(term, 0);
+                    scores.merge(topicId, idf * (1.0 + Math.log(tf)), Double::sum);
+                }
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.<Long, Double>comparingByKey(Comparator.reverseOrder())))
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Long> intersect(List<String> terms) {
+        Set<Long> result = null;
+        for (String term : terms) {
+            Set<Long> posting = postings.get(term);
+            if (posting == null) return Set.of();
+            if (result == null) result = new HashSet<>(posting);
+            else result.retainAll(posting);
+        }
+        return result;
+    }
+
+    private Set<Long> union(List<String> terms) {
+        Set<Long> result = new HashSet<>();
+        for (String term : terms) {
+            result.addAll(postings.getOrDefault(term, Set.of()));
+        }
+        return result;
+    }
+
+    private void putTopic(Long topicId, String title, String message) {
+        Document document = documents.computeIfAbsent(topicId, id -> new Document());
+        unlink(topicId, document.terms());
+        document.title = frequencies(title);
+        document.message = frequencies(message);
+        link(topicId, document.terms());
+    }
+
+    private void putAnswer(Long topicId, String message) {
+        Document document = documents.computeIfAbsent(topicId, id -> new Document());
+        frequencies(message).forEach((term, count) -> document.answers.merge(term, count, Integer::sum));
+        link(topicId, document.terms());
+    }
+
+    private void link(Long topicId, Set<String> terms) {
+        for (String term : terms) {
+            postings.computeIfAbsent(term, t -> new HashSet<>()).add(topicId);
+        }
+    }
+
+    private void unlink(Long topicId, Set<String> terms) {
+        for (String term : terms) {
+            Set<Long> posting = postings.get(term);
+            if (posting == null) continue;
+            posting.remove(topicId);
+            if (posting.isEmpty()) postings.remove(term);
+        }
+    }
+
+    private static Map<String, Integer> frequencies(String text) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : PortugueseAnalyzer.analyze(text)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    private static class Document {
+        private Map<String, Integer> title = new HashMap<>();
+        private Map<String, Integer> message = new HashMap<>();
+        private final Map<String, Integer> answers = new HashMap<>();
+
+        private Set<String> terms() {
+            Set<String> terms = new HashSet<>(title.keySet());
+            terms.addAll(message.keySet());
+            terms.addAll(answers.keySet());
+            return terms;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.alura.forum.infra.security;
+
+/**
+ * Lançada para tokens JWT inválidos ou expirados. Não preenche a stack trace:
+ * é uma condição esperada e pode ocorrer em qualquer requisição.
+ */
+public class InvalidTokenException extends RuntimeException {
+
+    public InvalidTokenException(String message) {
+        super(message, null, false, false);
+    }
+}
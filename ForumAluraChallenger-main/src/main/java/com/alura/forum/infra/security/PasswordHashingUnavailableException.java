@@ -0,0 +1,11 @@
+package com.alura.forum.infra.security;
+
+/**
+ * Lançada quando o pool de hashing de senhas está saturado e não aceita novas tarefas.
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,85 @@
+package com.alura.forum.infra.security;
+
+import com.alura.forum.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache limitado (tamanho + TTL) dos usuários autenticados, indexado pelo subject e pela expiração do JWT.
+ * Evita uma consulta à tabela user em toda requisição que envia o token. Cada entrada vive no máximo até
+ * a expiração do token que a carregou.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<TokenSubject, UserDetails> cache;
+    // Incrementado a cada invalidação: cargas iniciadas antes dela não gravam no cache
+    private final AtomicLong generation = new AtomicLong();
+
+    public PrincipalCache(UserRepository userRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${api.security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${api.security.principal-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principalCache");
+    }
+
+    // getIfPresent + put: cache.get(key, loader) faria a consulta dentro do lock do mapa,
+    // prendendo a thread portadora quando a requisição roda em thread virtual
+    public UserDetails find(TokenSubject subject) {
+        UserDetails cached = cache.getIfPresent(subject);
+        if (cached != null) return cached;
+        long start = generation.get();
+        UserDetails loaded = userRepository.findByLogin(subject.login());
+        if (loaded != null && generation.get() == start) cache.put(subject, loaded);
+        return loaded;
+    }
+
+    // Remove as entradas de todos os tokens do login; invalidações são raras frente às leituras
+    public void invalidate(String login) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(subject -> subject.login().equals(login));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    // TTL configurado, encurtado até a expiração do token; leituras não prolongam a entrada
+    private record UntilTokenExpiry(Duration ttl) implements Expiry<TokenSubject, UserDetails> {
+
+        @Override
+        public long expireAfterCreate(TokenSubject subject, UserDetails user, long currentTime) {
+            if (subject.expiresAt() == null) return ttl.toNanos();
+            Duration untilExpiry = Duration.between(Instant.now(), subject.expiresAt());
+            return untilExpiry.compareTo(ttl) < 0 ? Math.max(untilExpiry.toNanos(), 0) : ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenSubject subject, UserDetails user, long currentTime, long currentDuration) {
+            return expireAfterCreate(subject, user, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenSubject subject, UserDetails user, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
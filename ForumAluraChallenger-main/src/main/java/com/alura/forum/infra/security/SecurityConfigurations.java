@@ -1,6 +1,8 @@
 package com.alura.forum.infra.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,11 +12,12 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 @AllArgsConstructor
@@ -30,8 +33,11 @@ public class SecurityConfigurations {
                 .authorizeHttpRequests(req -> {
                             req.requestMatchers(HttpMethod.POST, "/api/**").permitAll();
                             req.requestMatchers("/v3/api-docs/**", "/swagger-ui.html", "/swagger-ui/**").permitAll();
+                            req.requestMatchers(HttpMethod.GET, "/topics/export", "/*/stream").authenticated();
+                            req.requestMatchers(HttpMethod.POST, "/topics/bulk-delete").hasAnyRole("MODERATOR", "ADMIN");
                             req.requestMatchers(HttpMethod.POST, "/**").authenticated();
                             req.requestMatchers(HttpMethod.PUT, "/**").authenticated();
+                            req.requestMatchers(HttpMethod.PATCH, "/**").authenticated();
                             req.requestMatchers(HttpMethod.DELETE, "/**").authenticated();
                             req.anyRequest().permitAll();
                         }
@@ -45,7 +51,11 @@ public class SecurityConfigurations {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${api.security.password.strength:10}") int strength,
+                                           @Value("${api.security.password.pool-size:2}") int poolSize,
+                                           @Value("${api.security.password.queue-capacity:64}") int queueCapacity,
+                                           @Value("${api.security.password.timeout:5s}") Duration timeout,
+                                           MeterRegistry meterRegistry) {
+        return new PooledPasswordEncoder(strength, poolSize, queueCapacity, timeout, meterRegistry);
     }
 }
@@ -2,9 +2,11 @@ package com.alura.forum.infra.security;
 
 import com.alura.forum.model.entity.User;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -15,18 +17,26 @@ import java.time.ZoneOffset;
 @Service
 public class TokenService {
 
-    @Value("${api.security.token.secret}")
-    private String secret;
+    private static final String ISSUER = "API FORUM_ALURA";
+
+    // Algorithm e JWTVerifier são imutáveis e thread-safe: criados uma única vez
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+
+    public TokenService(@Value("${api.security.token.secret}") String secret) {
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build();
+    }
 
     public String gerarToken(User usuario) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            String token = JWT.create()
-                    .withIssuer("API FORUM_ALURA")
+            return JWT.create()
+                    .withIssuer(ISSUER)
                     .withSubject(usuario.getLogin())
                     .withExpiresAt(dataExpiracao())
                     .sign(algorithm);
-            return token;
         } catch (JWTCreationException exception) {
             throw new RuntimeException("Erro ao gerar token JWT: " + exception);
         }
@@ -34,17 +44,26 @@ public class TokenService {
     }
 
     public String getSubject(String token) {
-        try {
-            var algoritmo = Algorithm.HMAC256(secret);
-            return JWT.require(algoritmo)
-                    .withIssuer("API FORUM_ALURA")
-                    .build()
-                    .verify(token)
-                    .getSubject();
+        return verify(token).login();
+    }
 
+    public TokenSubject verify(String token) {
+        if (!isWellFormed(token)) throw new InvalidTokenException("Token JWT mal formatado!");
+        try {
+            DecodedJWT decoded = verifier.verify(token);
+            return new TokenSubject(decoded.getSubject(), decoded.getExpiresAtAsInstant());
         } catch (JWTVerificationException ex) {
-            throw new RuntimeException("Token JWT Expirado ou Inválido!");
+            throw new InvalidTokenException("Token JWT Expirado ou Inválido!");
+        }
+    }
+
+    // header.payload.signature: descarta tokens mal formatados antes de decodificar
+    private static boolean isWellFormed(String token) {
+        int dots = 0;
+        for (int i = 0; i < token.length(); i++) {
+            if (token.charAt(i) == '.') dots++;
         }
+        return dots == 2;
     }
 
     private Instant dataExpiracao() {
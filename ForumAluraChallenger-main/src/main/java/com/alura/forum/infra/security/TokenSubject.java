@@ -0,0 +1,9 @@
+package com.alura.forum.infra.security;
+
+import java.time.Instant;
+
+/**
+ * Subject e expiração de um JWT já verificado.
+ */
+public record TokenSubject(String login, Instant expiresAt) {
+}
@@ -0,0 +1,207 @@
+package com.alura.forum.infra.sse;
+
+import com.alura.forum.model.event.TopicEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Distribui os {@link TopicEvent} confirmados para assinantes SSE (feed global ou de um tópico).
+ * Cada assinante tem uma fila limitada; quem não acompanha o ritmo é desconectado e pode retomar
+ * com {@code Last-Event-ID} a partir dos últimos eventos guardados em memória. Os ids têm a forma
+ * {@code <época>-<sequência>}: um Last-Event-ID de outro processo (reinício) recebe {@code reset}.
+ */
+@Component
+public class TopicEventStream implements DisposableBean {
+
+    // Sequência do processo; no campo "id" do SSE vai prefixada pela época
+    private record Entry(long id, TopicEvent event) {
+    }
+
+    private static final Entry HEARTBEAT = new Entry(-1, null);
+    // Eventos perdidos (fora do buffer ou reinício do servidor): o cliente deve recarregar o estado
+    private static final Entry RESET = new Entry(-2, null);
+
+    private record Subscriber(SseEmitter emitter, Long topicId, BlockingQueue<Entry> queue, AtomicBoolean draining) {
+
+        boolean accepts(TopicEvent event) {
+            return topicId == null || topicId.equals(event.topicId());
+        }
+    }
+
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Counter evictions;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Envio bloqueia enquanto o cliente lê; threads virtuais evitam prender threads de plataforma
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-", 0).factory());
+
+    // Buffer circular de replay e próximo id, protegidos por lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Entry[] replay;
+    private long nextId = 1;
+    // Início do processo em base 36: a sequência recomeça em 1 a cada reinício
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public TopicEventStream(MeterRegistry meterRegistry,
+                            @Value("${api.sse.buffer-size:64}") int bufferSize,
+                            @Value("${api.sse.replay-size:512}") int replaySize,
+                            @Value("${api.sse.timeout:30m}") Duration timeout) {
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.replay = new Entry[replaySize];
+        this.evictions = Counter.builder("sse.evictions")
+                .description("Assinantes desconectados por fila cheia")
+                .register(meterRegistry);
+        Gauge.builder("sse.subscribers", subscribers, Set::size)
+                .register(meterRegistry);
+    }
+
+    // topicId nulo assina o feed global
+    public SseEmitter subscribe(Long topicId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, topicId, new ArrayBlockingQueue<>(bufferSize), new AtomicBoolean());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        // Replay e registro sob o mesmo lock da publicação: sem lacunas nem duplicatas
+        lock.lock();
+        try {
+            if (lastEventId != null) enqueueReplay(subscriber, lastEventId);
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTopicEvent(TopicEvent event) {
+        List<Subscriber> ready = new ArrayList<>();
+        List<Subscriber> slow = new ArrayList<>();
+        lock.lock();
+        try {
+            Entry entry = new Entry(nextId, event);
+            replay[(int) (nextId % replay.length)] = entry;
+            nextId++;
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.accepts(event)) continue;
+                if (subscriber.queue().offer(entry)) ready.add(subscriber);
+                else slow.add(subscriber);
+            }
+        } finally {
+            lock.unlock();
+        }
+        slow.forEach(this::evict);
+        ready.forEach(this::schedule);
+    }
+
+    @Scheduled(initialDelayString = "${api.sse.heartbeat-interval-ms:15000}",
+            fixedDelayString = "${api.sse.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue().offer(HEARTBEAT)) schedule(subscriber);
+            else evict(subscriber);
+        }
+    }
+
+    private void enqueueReplay(Subscriber subscriber, String lastEventId) {
+        long sequence = sequenceOf(lastEventId);
+        if (sequence < 0) {
+            subscriber.queue().offer(RESET);
+            return;
+        }
+        enqueueReplay(subscriber, sequence);
+    }
+
+    private void enqueueReplay(Subscriber subscriber, long lastEventId) {
+        long oldest = Math.max(1, nextId - replay.length);
+        if (lastEventId + 1 < oldest || lastEventId >= nextId) subscriber.queue().offer(RESET);
+        for (long id = Math.max(lastEventId + 1, oldest); id < nextId; id++) {
+            Entry entry = replay[(int) (id % replay.length)];
+            if (!subscriber.accepts(entry.event())) continue;
+            if (!subscriber.queue().offer(entry)) {
+                subscriber.queue().clear();
+                subscriber.queue().offer(RESET);
+                return;
+            }
+        }
+    }
+
+    // Sequência de um id desta época; -1 para ids de outro processo ou malformados
+    private long sequenceOf(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) return -1;
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    // Um envio por assinante de cada vez; nova tarefa só quando não há outra drenando a fila
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.queue().isEmpty() && subscriber.draining().compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Entry entry;
+            while ((entry = subscriber.queue().poll()) != null) subscriber.emitter().send(toSse(entry));
+        } catch (IOException | IllegalStateException ex) {
+            // Cliente desconectado ou emitter já encerrado
+            subscribers.remove(subscriber);
+            return;
+        } finally {
+            subscriber.draining().set(false);
+        }
+        // Entrada que chegou entre o último poll e a liberação do flag
+        schedule(subscriber);
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) return;
+        evictions.increment();
+        subscriber.emitter().complete();
+    }
+
+    private SseEmitter.SseEventBuilder toSse(Entry entry) {
+        if (entry == HEARTBEAT) return SseEmitter.event().comment("heartbeat");
+        if (entry == RESET) return SseEmitter.event().name("reset").data("{}", MediaType.APPLICATION_JSON);
+        return SseEmitter.event()
+                .id(epoch + "-" + entry.id())
+                .name(entry.event().type().name().toLowerCase(Locale.ROOT))
+                .data(entry.event(), MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+        subscribers.clear();
+        senders.shutdown();
+    }
+}
@@ -0,0 +1,15 @@
+package com.alura.forum.model.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopicBulkDeleteDTO {
+    private List<Long> ids;
+    private TopicFilterDTO filter;
+}
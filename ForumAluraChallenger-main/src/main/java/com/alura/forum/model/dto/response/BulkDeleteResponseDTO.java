@@ -0,0 +1,12 @@
+package com.alura.forum.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@AllArgsConstructor
+@Getter
+@Setter
+public class BulkDeleteResponseDTO {
+    private long deleted;
+}
@@ -0,0 +1,29 @@
+package com.alura.forum.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor
+@Getter
+@Setter
+public class MultiGetResponseDTO<T> {
+    private List<T> items;
+    private List<Long> missing;
+
+    // Itens na ordem dos ids pedidos; ids sem resultado vão para missing
+    public static <T> MultiGetResponseDTO<T> of(List<Long> ids, Map<Long, T> found) {
+        List<T> items = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            T item = found.get(id);
+            if (item != null) items.add(item);
+            else missing.add(id);
+        }
+        return new MultiGetResponseDTO<>(items, missing);
+    }
+}
@@ -0,0 +1,16 @@
+package com.alura.forum.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+@Setter
+public class SubcategoryTreeResponseDTO {
+    private Long id;
+    private String nome;
+    private List<CourseResponseDTO> courses;
+}
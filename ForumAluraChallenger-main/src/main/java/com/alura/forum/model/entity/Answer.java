@@ -15,8 +15,11 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(of = "id")
 public class Answer implements CrudDomain<Long> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "answer_seq")
+    @SequenceGenerator(name = "answer_seq", sequenceName = "answer_seq", allocationSize = 50)
     private Long id;
+    @Version
+    private LocalDateTime version;
     private String message;
     private LocalDateTime createdAt = LocalDateTime.now();
     @JsonIgnore
@@ -4,11 +4,16 @@ import com.alura.forum.core.crud.CrudDomain;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,8 +22,11 @@ import java.util.List;
 @ToString
 public class Subcategory implements CrudDomain<Long> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subcategory_seq")
+    @SequenceGenerator(name = "subcategory_seq", sequenceName = "subcategory_seq", allocationSize = 50)
     private Long id;
+    @Version
+    private LocalDateTime version;
     private String name;
 
     @JsonIgnore
@@ -18,12 +18,20 @@ import java.util.List;
 @ToString
 public class Topic implements CrudDomain<Long> {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "topic_seq")
+    @SequenceGenerator(name = "topic_seq", sequenceName = "topic_seq", allocationSize = 50)
     private Long id;
+    @Version
+    private LocalDateTime version;
     private String title;
     private String message;
     private LocalDateTime createdAt = LocalDateTime.now();
     private Integer status = 1;
+    // Mantidos apenas por UPDATEs atômicos no TopicRepository; nunca sobrescritos pelo flush da entidade
+    @Column(updatable = false)
+    private Integer answerCount = 0;
+    @Column(updatable = false)
+    private LocalDateTime lastActivityAt = createdAt;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "fk_category")
@@ -40,7 +48,8 @@ public class Topic implements CrudDomain<Long> {
     @JoinColumn(name = "fk_answer_solution")
     private Answer answerSolution;
 
-    @OneToMany(fetch = FetchType.LAZY, mappedBy = "topic", cascade = CascadeType.ALL)
+    // Sem cascade: respostas são removidas em conjunto pelo TopicService
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "topic")
     private List<Answer> answers = new ArrayList<>();
 
     @ManyToOne
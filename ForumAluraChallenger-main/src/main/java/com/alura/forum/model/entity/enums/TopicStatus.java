@@ -3,9 +3,6 @@ package com.alura.forum.model.entity.enums;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
-import java.util.Arrays;
-import java.util.Objects;
-
 @AllArgsConstructor
 @Getter
 public enum TopicStatus {
@@ -16,9 +13,16 @@ public enum TopicStatus {
     private Integer id;
     private String name;
 
+    // Ids contíguos a partir de 1: busca direta por índice
+    private static final TopicStatus[] BY_ID = values();
+
     public static TopicStatus findById(Integer id) {
-        return Arrays.stream(TopicStatus.values())
-                .filter(s -> Objects.equals(s.id, id))
-                .findFirst().orElse(null);
+        if (id == null || id < 1 || id > BY_ID.length) return null;
+        return BY_ID[id - 1];
+    }
+
+    public static String nameOf(Integer id) {
+        TopicStatus status = findById(id);
+        return status == null ? null : status.getName();
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.alura.forum.model.entity.enums;
+
+public enum UserRole {
+    USER,
+    MODERATOR,
+    ADMIN;
+
+    // Nome da autoridade no Spring Security (hasRole acrescenta o prefixo ROLE_)
+    public String authority() {
+        return "ROLE_" + name();
+    }
+}
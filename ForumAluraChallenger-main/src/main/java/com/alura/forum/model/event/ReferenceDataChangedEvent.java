@@ -0,0 +1,7 @@
+package com.alura.forum.model.event;
+
+/**
+ * Alteração em categorias, subcategorias ou cursos, publicada pelo {@link com.alura.forum.service.ReferenceDataService}.
+ */
+public record ReferenceDataChangedEvent(Class<?> type, Long id) {
+}
@@ -0,0 +1,14 @@
+package com.alura.forum.model.event;
+
+/**
+ * Evento de alteração de um tópico, publicado pelos serviços e consumido após o commit
+ * (índice de busca, caches, notificações).
+ */
+public record TopicEvent(Type type, Long topicId, Long answerId) {
+
+    public enum Type {CREATED, UPDATED, DELETED, ANSWERED, SOLVED}
+
+    public static TopicEvent of(Type type, Long topicId) {
+        return new TopicEvent(type, topicId, null);
+    }
+}
@@ -0,0 +1,4 @@
+package com.alura.forum.model.projections;
+
+public record AnswerSearchDocument(Long topicId, String message) {
+}
@@ -2,12 +2,14 @@ package com.alura.forum.model.projections;
 
 import java.time.LocalDateTime;
 
-public interface AnswerSlim {
-    Long getId();
+public record AnswerSlim(Long id, String message, LocalDateTime createdAt, UserSlim author) {
 
-    String getMessage();
+    // Construtor plano usado pelas expressões "SELECT new" (o JPQL não aninha construtores)
+    public AnswerSlim(Long id, String message, LocalDateTime createdAt, Long authorId, String authorName) {
+        this(id, message, createdAt, UserSlim.of(authorId, authorName));
+    }
 
-    LocalDateTime getCreatedAt();
-
-    UserSlim getAuthor();
+    public static AnswerSlim of(Long id, String message, LocalDateTime createdAt, Long authorId, String authorName) {
+        return id == null ? null : new AnswerSlim(id, message, createdAt, authorId, authorName);
+    }
 }
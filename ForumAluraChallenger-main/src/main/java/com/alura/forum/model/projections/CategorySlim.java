@@ -1,7 +1,9 @@
 package com.alura.forum.model.projections;
 
-public interface CategorySlim {
-    Long getId();
+public record CategorySlim(Long id, String name) {
 
-    String getName();
+    // Associação opcional vinda de LEFT JOIN: id nulo vira null no JSON
+    public static CategorySlim of(Long id, String name) {
+        return id == null ? null : new CategorySlim(id, name);
+    }
 }
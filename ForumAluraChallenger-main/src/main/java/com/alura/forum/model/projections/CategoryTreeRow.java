@@ -0,0 +1,6 @@
+package com.alura.forum.model.projections;
+
+public record CategoryTreeRow(Long categoryId, String categoryName,
+                              Long subcategoryId, String subcategoryName,
+                              Long courseId, String courseName) {
+}
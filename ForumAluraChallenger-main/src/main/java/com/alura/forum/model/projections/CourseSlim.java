@@ -1,7 +1,9 @@
 package com.alura.forum.model.projections;
 
-public interface CourseSlim {
-    Long getId();
+public record CourseSlim(Long id, String name) {
 
-    String getName();
+    // Associação opcional vinda de LEFT JOIN: id nulo vira null no JSON
+    public static CourseSlim of(Long id, String name) {
+        return id == null ? null : new CourseSlim(id, name);
+    }
 }
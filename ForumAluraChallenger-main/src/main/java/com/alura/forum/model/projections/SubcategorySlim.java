@@ -1,7 +1,9 @@
 package com.alura.forum.model.projections;
 
-public interface SubcategorySlim {
-    Long getId();
+public record SubcategorySlim(Long id, String name) {
 
-    String getName();
+    // Associação opcional vinda de LEFT JOIN: id nulo vira null no JSON
+    public static SubcategorySlim of(Long id, String name) {
+        return id == null ? null : new SubcategorySlim(id, name);
+    }
 }
@@ -1,11 +1,46 @@
 package com.alura.forum.model.projections;
 
+import com.alura.forum.model.entity.enums.TopicStatus;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
-@JsonPropertyOrder({"id", "title", "message", "createdAt", "status", "statusEnum", "category", "subcategory", "course", "answerSolution"})
-public interface TopicCompleteDTO extends TopicSlimDTO {
-    String getMessage();
+import java.time.Instant;
+import java.time.LocalDateTime;
 
-    AnswerSlim getAnswerSolution();
+@JsonPropertyOrder({"id", "title", "message", "createdAt", "status", "statusEnum", "answerCount", "lastActivityAt", "category", "subcategory", "course", "answerSolution"})
+public record TopicCompleteDTO(Long id,
+                               String title,
+                               String message,
+                               Instant createdAt,
+                               Integer status,
+                               String statusName,
+                               Integer answerCount,
+                               Instant lastActivityAt,
+                               CategorySlim category,
+                               SubcategorySlim subcategory,
+                               CourseSlim course,
+                               UserSlim author,
+                               AnswerSlim answerSolution) {
 
-}
\ No newline at end of file
+    // Construtor plano usado pela expressão "SELECT new" do TopicRepository
+    public TopicCompleteDTO(Long id, String title, String message, LocalDateTime createdAt, Integer status,
+                            Integer answerCount, LocalDateTime lastActivityAt,
+                            Long categoryId, String categoryName,
+                            Long subcategoryId, String subcategoryName,
+                            Long courseId, String courseName,
+                            Long authorId, String authorName,
+                            Long solutionId, String solutionMessage, LocalDateTime solutionCreatedAt,
+                            Long solutionAuthorId, String solutionAuthorName) {
+        this(id, title, message, TopicSlimDTO.toInstant(createdAt), status, TopicStatus.nameOf(status), answerCount,
+                TopicSlimDTO.toInstant(lastActivityAt),
+                CategorySlim.of(categoryId, categoryName),
+                SubcategorySlim.of(subcategoryId, subcategoryName),
+                CourseSlim.of(courseId, courseName),
+                UserSlim.of(authorId, authorName),
+                AnswerSlim.of(solutionId, solutionMessage, solutionCreatedAt, solutionAuthorId, solutionAuthorName));
+    }
+
+    public TopicSlimDTO toSlim() {
+        return new TopicSlimDTO(id, title, createdAt, status, statusName, answerCount, lastActivityAt,
+                category, subcategory, course, author);
+    }
+}
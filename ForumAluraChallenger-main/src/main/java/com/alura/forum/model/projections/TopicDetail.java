@@ -0,0 +1,30 @@
+package com.alura.forum.model.projections;
+
+import com.alura.forum.core.crud.VersionStamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Detalhe do tópico junto da sua ETag, lidos na mesma consulta e guardados juntos no TopicDetailCache:
+ * a ETag sempre corresponde ao conteúdo servido.
+ */
+public record TopicDetail(TopicCompleteDTO topic, String tag) {
+
+    // Construtor plano usado pela expressão "SELECT new" do TopicRepository: colunas do TopicCompleteDTO
+    // seguidas da maior versão entre o tópico e as linhas embutidas no detalhe
+    public TopicDetail(Long id, String title, String message, LocalDateTime createdAt, Integer status,
+                       Integer answerCount, LocalDateTime lastActivityAt,
+                       Long categoryId, String categoryName,
+                       Long subcategoryId, String subcategoryName,
+                       Long courseId, String courseName,
+                       Long authorId, String authorName,
+                       Long solutionId, String solutionMessage, LocalDateTime solutionCreatedAt,
+                       Long solutionAuthorId, String solutionAuthorName,
+                       LocalDateTime version) {
+        this(new TopicCompleteDTO(id, title, message, createdAt, status, answerCount, lastActivityAt,
+                        categoryId, categoryName, subcategoryId, subcategoryName, courseId, courseName,
+                        authorId, authorName, solutionId, solutionMessage, solutionCreatedAt,
+                        solutionAuthorId, solutionAuthorName),
+                VersionStamp.strong(version));
+    }
+}
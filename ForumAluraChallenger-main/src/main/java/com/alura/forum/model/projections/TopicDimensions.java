@@ -0,0 +1,5 @@
+package com.alura.forum.model.projections;
+
+// Colunas usadas pelo TopicCountService, lidas antes de uma remoção em conjunto
+public record TopicDimensions(Long id, Long categoryId, Long courseId, Integer status) {
+}
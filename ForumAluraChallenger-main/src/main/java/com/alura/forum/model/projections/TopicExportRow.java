@@ -0,0 +1,21 @@
+package com.alura.forum.model.projections;
+
+import java.time.LocalDateTime;
+
+// Uma linha por par (tópico, resposta); tópicos sem resposta vêm com answer nulo
+public record TopicExportRow(TopicSlimDTO topic, AnswerSlim answer) {
+
+    public TopicExportRow(Long id, String title, LocalDateTime createdAt, Integer status,
+                          Integer answerCount, LocalDateTime lastActivityAt,
+                          Long categoryId, String categoryName,
+                          Long subcategoryId, String subcategoryName,
+                          Long courseId, String courseName,
+                          Long authorId, String authorName,
+                          Long answerId, String answerMessage, LocalDateTime answerCreatedAt,
+                          Long answerAuthorId, String answerAuthorName) {
+        this(new TopicSlimDTO(id, title, createdAt, status, answerCount, lastActivityAt,
+                        categoryId, categoryName, subcategoryId, subcategoryName, courseId, courseName,
+                        authorId, authorName),
+                AnswerSlim.of(answerId, answerMessage, answerCreatedAt, answerAuthorId, answerAuthorName));
+    }
+}
@@ -0,0 +1,4 @@
+package com.alura.forum.model.projections;
+
+public record TopicSearchDocument(Long id, String title, String message) {
+}
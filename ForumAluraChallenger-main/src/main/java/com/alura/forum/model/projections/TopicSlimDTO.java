@@ -4,27 +4,37 @@ import com.alura.forum.model.entity.enums.TopicStatus;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import java.time.Instant;
-
-@JsonPropertyOrder({"id", "title", "createdAt", "status", "statusName", "category", "subcategory", "course", "author"})
-public interface TopicSlimDTO {
-    Long getId();
-
-    String getTitle();
-
-    Instant getCreatedAt();
-
-    Integer getStatus();
-
-    default String getStatusName() {
-        return TopicStatus.findById(getStatus()).getName();
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+@JsonPropertyOrder({"id", "title", "createdAt", "status", "statusName", "answerCount", "lastActivityAt", "category", "subcategory", "course", "author"})
+public record TopicSlimDTO(Long id,
+                           String title,
+                           Instant createdAt,
+                           Integer status,
+                           String statusName,
+                           Integer answerCount,
+                           Instant lastActivityAt,
+                           CategorySlim category,
+                           SubcategorySlim subcategory,
+                           CourseSlim course,
+                           UserSlim author) {
+
+    // Construtor plano usado pelas expressões "SELECT new" do TopicRepository
+    public TopicSlimDTO(Long id, String title, LocalDateTime createdAt, Integer status,
+                        Integer answerCount, LocalDateTime lastActivityAt,
+                        Long categoryId, String categoryName,
+                        Long subcategoryId, String subcategoryName,
+                        Long courseId, String courseName,
+                        Long authorId, String authorName) {
+        this(id, title, toInstant(createdAt), status, TopicStatus.nameOf(status), answerCount, toInstant(lastActivityAt),
+                CategorySlim.of(categoryId, categoryName),
+                SubcategorySlim.of(subcategoryId, subcategoryName),
+                CourseSlim.of(courseId, courseName),
+                UserSlim.of(authorId, authorName));
     }
 
-    CategorySlim getCategory();
-
-    SubcategorySlim getSubcategory();
-
-    CourseSlim getCourse();
-
-    UserSlim getAuthor();
-
-}
\ No newline at end of file
+    public static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -1,7 +1,9 @@
 package com.alura.forum.model.projections;
 
-public interface UserSlim {
-    Long getId();
+public record UserSlim(Long id, String name) {
 
-    String getName();
+    // Associação opcional vinda de LEFT JOIN: id nulo vira null no JSON
+    public static UserSlim of(Long id, String name) {
+        return id == null ? null : new UserSlim(id, name);
+    }
 }
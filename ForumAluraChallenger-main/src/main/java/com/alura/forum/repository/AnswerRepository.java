@@ -1,14 +1,79 @@
 package com.alura.forum.repository;
 
 import com.alura.forum.core.crud.CrudRepository;
+import com.alura.forum.core.crud.VersionStamp;
 import com.alura.forum.model.entity.Answer;
+import com.alura.forum.model.projections.AnswerSearchDocument;
 import com.alura.forum.model.projections.AnswerSlim;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface AnswerRepository extends CrudRepository<Answer, Long> {
 
-    Page<AnswerSlim> findAllByTopicId(Long id, Pageable pageable);
+    // Projeção em record montada por "SELECT new"
+    String SLIM_SELECT = "SELECT new com.alura.forum.model.projections.AnswerSlim(a.id, a.message, a.createdAt, u.id, u.name) " +
+            "FROM Answer a LEFT JOIN a.author u ";
+
+    @Query(SLIM_SELECT + "WHERE a.id IN :ids")
+    List<AnswerSlim> findSlimByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SLIM_SELECT + "WHERE a.topic.id = :id")
+    Slice<AnswerSlim> findSliceByTopicId(@Param("id") Long id, Pageable pageable);
+
+    // /answers/stream: cursor do lado do servidor sobre a projeção (o autor EAGER da entidade exigiria outra consulta)
+    @QueryHints({@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")})
+    @Query(SLIM_SELECT + "ORDER BY a.id")
+    Stream<AnswerSlim> streamSlimBy();
+
+    // Documentos do índice de busca em memória
+    @Query("SELECT new com.alura.forum.model.projections.AnswerSearchDocument(a.topic.id, a.message) FROM Answer a")
+    Stream<AnswerSearchDocument> streamSearchDocuments();
+
+    @Query("SELECT new com.alura.forum.core.crud.VersionStamp(COUNT(a), MAX(a.version)) FROM Answer a WHERE a.topic.id = :topicId")
+    VersionStamp findVersionStampByTopicId(@Param("topicId") Long topicId);
+
+    @Modifying
+    @Query("DELETE FROM Answer a WHERE a.topic.id IN :topicIds")
+    int deleteByTopicIdIn(@Param("topicIds") Collection<Long> topicIds);
+
+    @Query("SELECT a.topic.id FROM Answer a WHERE a.id = :id")
+    Optional<Long> findTopicIdById(@Param("id") Long id);
+
+    @Query("SELECT a.message FROM Answer a WHERE a.id = :id")
+    Optional<String> findMessageById(@Param("id") Long id);
+
+    @Query("SELECT a.message FROM Answer a WHERE a.topic.id = :topicId")
+    List<String> findMessagesByTopicId(@Param("topicId") Long topicId);
+
+    // Paginação por chave (createdAt, id), da resposta mais antiga para a mais recente
+    @Query(SLIM_SELECT + "WHERE a.topic.id = :topicId " +
+            "ORDER BY a.createdAt ASC, a.id ASC")
+    List<AnswerSlim> findKeysetFirst(@Param("topicId") Long topicId, Pageable pageable);
+
+    @Query(SLIM_SELECT + "WHERE a.topic.id = :topicId " +
+            "AND (a.createdAt > :createdAt OR (a.createdAt = :createdAt AND a.id > :id)) " +
+            "ORDER BY a.createdAt ASC, a.id ASC")
+    List<AnswerSlim> findKeysetAfter(@Param("topicId") Long topicId, @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id, Pageable pageable);
+
+    @Query(SLIM_SELECT + "WHERE a.topic.id = :topicId " +
+            "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC")
+    List<AnswerSlim> findKeysetBefore(@Param("topicId") Long topicId, @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id, Pageable pageable);
 }
@@ -2,8 +2,18 @@ package com.alura.forum.repository;
 
 import com.alura.forum.core.crud.CrudRepository;
 import com.alura.forum.model.entity.Category;
+import com.alura.forum.model.projections.CategoryTreeRow;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CategoryRepository extends CrudRepository<Category, Long> {
+
+    // Hierarquia completa categoria -> subcategoria -> curso em uma única consulta
+    @Query("SELECT new com.alura.forum.model.projections.CategoryTreeRow(c.id, c.name, s.id, s.name, co.id, co.name) " +
+            "FROM Category c LEFT JOIN Subcategory s ON s.category = c LEFT JOIN s.courses co " +
+            "ORDER BY c.id, s.id, co.id")
+    List<CategoryTreeRow> findTreeRows();
 }
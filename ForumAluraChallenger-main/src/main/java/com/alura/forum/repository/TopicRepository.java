@@ -1,71 +1,204 @@
 package com.alura.forum.repository;
 
 import com.alura.forum.core.crud.CrudRepository;
+import com.alura.forum.model.entity.Answer;
 import com.alura.forum.model.entity.Topic;
-import com.alura.forum.model.entity.enums.TopicStatus;
-import com.alura.forum.model.projections.TopicCompleteDTO;
+import com.alura.forum.model.projections.TopicDetail;
+import com.alura.forum.model.projections.TopicDimensions;
+import com.alura.forum.model.projections.TopicExportRow;
+import com.alura.forum.model.projections.TopicSearchDocument;
 import com.alura.forum.model.projections.TopicSlimDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TopicRepository extends CrudRepository<Topic, Long> {
+public interface TopicRepository extends CrudRepository<Topic, Long>, JpaSpecificationExecutor<Topic>, TopicRepositoryCustom {
 
+    // Projeções em records montadas por "SELECT new"; LEFT JOIN explícito mantém associações nulas (ex.: curso)
+    String SLIM_SELECT = "SELECT new com.alura.forum.model.projections.TopicSlimDTO(t.id, t.title, t.createdAt, t.status, " +
+            "t.answerCount, t.lastActivityAt, c.id, c.name, s.id, s.name, co.id, co.name, u.id, u.name) " +
+            "FROM Topic t LEFT JOIN t.category c LEFT JOIN t.subcategory s LEFT JOIN t.course co LEFT JOIN t.author u ";
+
+    // Colunas do TopicCompleteDTO seguidas da maior versão entre o tópico e as linhas embutidas no detalhe
+    // (solução, categoria, subcategoria, curso), que vira a ETag
+    String DETAIL_SELECT = "SELECT new com.alura.forum.model.projections.TopicDetail(t.id, t.title, t.message, " +
+            "t.createdAt, t.status, t.answerCount, t.lastActivityAt, c.id, c.name, s.id, s.name, co.id, co.name, " +
+            "u.id, u.name, sol.id, sol.message, sol.createdAt, su.id, su.name, " +
+            "greatest(t.version, coalesce(sol.version, t.version), coalesce(c.version, t.version), " +
+            "coalesce(s.version, t.version), coalesce(co.version, t.version))) " +
+            "FROM Topic t LEFT JOIN t.category c LEFT JOIN t.subcategory s LEFT JOIN t.course co LEFT JOIN t.author u " +
+            "LEFT JOIN t.answerSolution sol LEFT JOIN sol.author su ";
+
+    @Query(value = SLIM_SELECT, countQuery = "SELECT COUNT(t) FROM Topic t")
     Page<TopicSlimDTO> findAllBy(Pageable pageable);
 
-    Optional<TopicCompleteDTO> findTopicCompleteById(Long aLong);
+    @Query(SLIM_SELECT + "WHERE t.id IN :ids")
+    List<TopicSlimDTO> findSlimByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Slices buscam size + 1 linhas e não executam COUNT(*)
+    @Query(SLIM_SELECT)
+    Slice<TopicSlimDTO> findSliceBy(Pageable pageable);
+
+    @Query(SLIM_SELECT + "WHERE t.category.id = :categoryId")
+    Slice<TopicSlimDTO> findSliceByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @Query(SLIM_SELECT + "WHERE t.course.id = :courseId")
+    Slice<TopicSlimDTO> findSliceByCourseId(@Param("courseId") Long courseId, Pageable pageable);
+
+    @Query(SLIM_SELECT + "WHERE t.status = :status")
+    Slice<TopicSlimDTO> findSliceByStatus(@Param("status") Integer status, Pageable pageable);
+
+    @Query("SELECT t.category.id, COUNT(t) FROM Topic t GROUP BY t.category.id")
+    List<Object[]> countGroupedByCategory();
+
+    @Query("SELECT t.course.id, COUNT(t) FROM Topic t WHERE t.course IS NOT NULL GROUP BY t.course.id")
+    List<Object[]> countGroupedByCourse();
+
+    @Query("SELECT t.status, COUNT(t) FROM Topic t GROUP BY t.status")
+    List<Object[]> countGroupedByStatus();
+
+    @Query(DETAIL_SELECT + "WHERE t.id = :id")
+    Optional<TopicDetail> findDetailById(@Param("id") Long id);
+
+    @Query(SLIM_SELECT + "WHERE t.id IN :ids")
+    List<TopicSlimDTO> findAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Documentos do índice de busca em memória
+    @Query("SELECT new com.alura.forum.model.projections.TopicSearchDocument(t.id, t.title, t.message) FROM Topic t")
+    Stream<TopicSearchDocument> streamSearchDocumentsBy();
+
+    @Query("SELECT new com.alura.forum.model.projections.TopicSearchDocument(t.id, t.title, t.message) " +
+            "FROM Topic t WHERE t.id = :id")
+    Optional<TopicSearchDocument> findSearchDocumentById(@Param("id") Long id);
+
+    // Só a maior versão (idx_topic_version): o total das listagens vem do TopicCountService, sem COUNT(*)
+    @Query("SELECT MAX(t.version) FROM Topic t")
+    LocalDateTime findMaxVersion();
 
-    @Query("SELECT t.status FROM Topic t WHERE t.id = :id")
-    Integer findStatusById(Long id);
+    // Total das páginas de respostas: contador mantido pelos UPDATEs abaixo, lido pela chave primária
+    @Query("SELECT t.answerCount FROM Topic t WHERE t.id = :id")
+    Optional<Integer> findAnswerCountById(@Param("id") Long id);
 
-    List<TopicSlimDTO> findAllTopicSlimByCategoryId(Long id);
+    // Primeira resposta: SEM RESPOSTAS -> NÃO SOLUCIONADO no mesmo UPDATE que incrementa o contador
+    @Modifying
+    @Query("UPDATE VERSIONED Topic t SET t.status = 2, t.answerCount = t.answerCount + 1, t.lastActivityAt = greatest(coalesce(t.lastActivityAt, :at), :at) WHERE t.id = :id AND t.status = 1")
+    int registerFirstAnswer(@Param("id") Long id, @Param("at") LocalDateTime at);
 
-    List<TopicSlimDTO> findAllByAuthor(UserDetails user);
+    @Modifying
+    @Query("UPDATE VERSIONED Topic t SET t.answerCount = t.answerCount + 1, t.lastActivityAt = greatest(coalesce(t.lastActivityAt, :at), :at) WHERE t.id = :id")
+    int registerAnswer(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("UPDATE VERSIONED Topic t SET t.answerSolution = :answer, t.status = 3 WHERE t.id = :id AND t.author.id = :authorId AND t.status = :status")
+    int markSolution(@Param("id") Long id, @Param("answer") Answer answer, @Param("authorId") Long authorId,
+                     @Param("status") Integer status);
+
+    @Modifying
+    @Query("UPDATE VERSIONED Topic t SET t.answerCount = t.answerCount - 1 WHERE t.id = :id AND t.answerCount > 0")
+    int unregisterAnswer(@Param("id") Long id);
+
+    // Remoção em conjunto: solução, respostas (AnswerRepository) e tópicos, sem carregar entidades
+    @Query("SELECT new com.alura.forum.model.projections.TopicDimensions(t.id, t.category.id, t.course.id, t.status) " +
+            "FROM Topic t WHERE t.id IN :ids")
+    List<TopicDimensions> findDimensionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE VERSIONED Topic t SET t.answerSolution = null WHERE t.id IN :ids")
+    int clearAnswerSolutions(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Topic t WHERE t.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+
+    @Query(SLIM_SELECT + "WHERE t.category.id = :id")
+    List<TopicSlimDTO> findAllTopicSlimByCategoryId(@Param("id") Long id);
+
+    @Query(SLIM_SELECT + "WHERE t.author = :user")
+    List<TopicSlimDTO> findAllByAuthor(@Param("user") UserDetails user);
 
     @Override
     Optional<Topic> findById(Long aLong);
+
+    // Carrega as associações usadas pelo TopicConverter na mesma consulta da página (evita N+1)
+    @Override
+    @EntityGraph(attributePaths = {"category", "subcategory", "course", "author"})
+    Page<Topic> findAll(Specification<Topic> spec, Pageable pageable);
     
     // Busca por título contendo o texto
-    Page<TopicSlimDTO> findByTitleContainingIgnoreCase(String title, Pageable pageable);
+    @Query(value = SLIM_SELECT + "WHERE UPPER(t.title) LIKE UPPER(CONCAT('%', :title, '%'))",
+            countQuery = "SELECT COUNT(t) FROM Topic t WHERE UPPER(t.title) LIKE UPPER(CONCAT('%', :title, '%'))")
+    Page<TopicSlimDTO> findByTitleContainingIgnoreCase(@Param("title") String title, Pageable pageable);
     
     // Busca por mensagem contendo o texto
-    Page<TopicSlimDTO> findByMessageContainingIgnoreCase(String message, Pageable pageable);
+    @Query(value = SLIM_SELECT + "WHERE UPPER(t.message) LIKE UPPER(CONCAT('%', :message, '%'))",
+            countQuery = "SELECT COUNT(t) FROM Topic t WHERE UPPER(t.message) LIKE UPPER(CONCAT('%', :message, '%'))")
+    Page<TopicSlimDTO> findByMessageContainingIgnoreCase(@Param("message") String message, Pageable pageable);
     
     // Busca por status
-    Page<TopicSlimDTO> findByStatus(TopicStatus status, Pageable pageable);
+    @Query(value = SLIM_SELECT + "WHERE t.status = :status",
+            countQuery = "SELECT COUNT(t) FROM Topic t WHERE t.status = :status")
+    Page<TopicSlimDTO> findByStatus(@Param("status") Integer status, Pageable pageable);
     
     // Busca por categoria
-    Page<TopicSlimDTO> findByCategoryId(Long categoryId, Pageable pageable);
+    @Query(value = SLIM_SELECT + "WHERE t.category.id = :categoryId",
+            countQuery = "SELECT COUNT(t) FROM Topic t WHERE t.category.id = :categoryId")
+    Page<TopicSlimDTO> findByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
     
     // Busca por curso
-    Page<TopicSlimDTO> findByCourseId(Long courseId, Pageable pageable);
+    @Query(value = SLIM_SELECT + "WHERE t.course.id = :courseId",
+            countQuery = "SELECT COUNT(t) FROM Topic t WHERE t.course.id = :courseId")
+    Page<TopicSlimDTO> findByCourseId(@Param("courseId") Long courseId, Pageable pageable);
     
     // Busca por data de criação entre um período
-    Page<TopicSlimDTO> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @Query(value = SLIM_SELECT + "WHERE t.createdAt BETWEEN :start AND :end",
+            countQuery = "SELECT COUNT(t) FROM Topic t WHERE t.createdAt BETWEEN :start AND :end")
+    Page<TopicSlimDTO> findByCreatedAtBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                              Pageable pageable);
     
-    // Busca combinada com vários filtros
-    @Query("SELECT t FROM Topic t WHERE " +
-           "(:title IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%'))) AND " +
-           "(:categoryId IS NULL OR t.category.id = :categoryId) AND " +
-           "(:courseId IS NULL OR t.course.id = :courseId) AND " +
-           "(:status IS NULL OR t.status = :status) AND " +
-           "(:startDate IS NULL OR t.createdAt >= :startDate) AND " +
-           "(:endDate IS NULL OR t.createdAt <= :endDate)")
-    Page<Topic> findByFilters(
-            @Param("title") String title,
-            @Param("categoryId") Long categoryId,
-            @Param("courseId") Long courseId,
-            @Param("status") TopicStatus status,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
-            Pageable pageable);
+    // Exportação: cursor do lado do servidor (fetch size Integer.MIN_VALUE no Connector/J), memória constante
+    @QueryHints({@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")})
+    @Query(SLIM_SELECT + "ORDER BY t.id")
+    Stream<TopicSlimDTO> streamExport();
+
+    @QueryHints({@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.alura.forum.model.projections.TopicExportRow(t.id, t.title, t.createdAt, t.status, " +
+            "t.answerCount, t.lastActivityAt, c.id, c.name, s.id, s.name, co.id, co.name, u.id, u.name, " +
+            "a.id, a.message, a.createdAt, au.id, au.name) " +
+            "FROM Topic t LEFT JOIN t.category c LEFT JOIN t.subcategory s LEFT JOIN t.course co LEFT JOIN t.author u " +
+            "LEFT JOIN t.answers a LEFT JOIN a.author au ORDER BY t.id")
+    Stream<TopicExportRow> streamExportWithAnswers();
+
+    // Paginação por chave (createdAt, id), do mais recente para o mais antigo
+    @Query(SLIM_SELECT + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TopicSlimDTO> findKeysetFirst(Pageable pageable);
+
+    @Query(SLIM_SELECT + "WHERE t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TopicSlimDTO> findKeysetBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query(SLIM_SELECT + "WHERE t.createdAt > :createdAt OR (t.createdAt = :createdAt AND t.id > :id) " +
+            "ORDER BY t.createdAt ASC, t.id ASC")
+    List<TopicSlimDTO> findKeysetAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
 }
 
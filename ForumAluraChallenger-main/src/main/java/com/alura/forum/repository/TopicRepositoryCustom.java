@@ -0,0 +1,12 @@
+package com.alura.forum.repository;
+
+import com.alura.forum.model.entity.Topic;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface TopicRepositoryCustom {
+
+    // Ids que atendem à Specification, em ordem crescente e após afterId (paginação por chave)
+    List<Long> findIdsAfter(Specification<Topic> spec, Long afterId, int limit);
+}
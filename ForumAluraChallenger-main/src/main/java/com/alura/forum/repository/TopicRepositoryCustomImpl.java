@@ -0,0 +1,31 @@
+package com.alura.forum.repository;
+
+import com.alura.forum.model.entity.Topic;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public class TopicRepositoryCustomImpl implements TopicRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findIdsAfter(Specification<Topic> spec, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Topic> root = query.from(Topic.class);
+        Predicate after = cb.greaterThan(root.get("id"), afterId);
+        Predicate filter = spec.toPredicate(root, query, cb);
+        query.select(root.<Long>get("id"))
+                .where(filter == null ? after : cb.and(filter, after))
+                .orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
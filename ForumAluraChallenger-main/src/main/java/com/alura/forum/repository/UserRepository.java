@@ -1,12 +1,17 @@
 package com.alura.forum.repository;
 
-import com.alura.forum.core.crud.CrudRepository;
 import com.alura.forum.model.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Repository;
 
+// Usuários não são versionados: fica fora do CrudRepository e das suas consultas de versão
 @Repository
-public interface UserRepository extends CrudRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long> {
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     UserDetails findByLogin(String login);
 }
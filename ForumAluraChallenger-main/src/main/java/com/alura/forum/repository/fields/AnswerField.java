@@ -0,0 +1,40 @@
+package com.alura.forum.repository.fields;
+
+import com.alura.forum.model.entity.Answer;
+import com.alura.forum.model.projections.UserSlim;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.List;
+import java.util.Map;
+
+// Campos de resposta aceitos em fields=, com os mesmos nomes do AnswerSlim
+public enum AnswerField implements SparseField<Answer> {
+    ID(SparseField.column("id", "id")),
+    MESSAGE(SparseField.column("message", "message")),
+    CREATED_AT(SparseField.column("createdAt", "createdAt")),
+    AUTHOR(SparseField.reference("author", "author", "name", UserSlim::of));
+
+    private final SparseField<Answer> field;
+
+    AnswerField(SparseField<Answer> field) {
+        this.field = field;
+    }
+
+    @Override
+    public String jsonName() {
+        return field.jsonName();
+    }
+
+    @Override
+    public void select(Root<Answer> root, Map<String, Join<Answer, ?>> joins, List<Selection<?>> selections) {
+        field.select(root, joins, selections);
+    }
+
+    @Override
+    public Object read(Tuple tuple) {
+        return field.read(tuple);
+    }
+}
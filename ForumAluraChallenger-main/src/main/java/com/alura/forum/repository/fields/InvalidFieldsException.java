@@ -0,0 +1,23 @@
+package com.alura.forum.repository.fields;
+
+import java.util.Set;
+
+/**
+ * Lançada quando o parâmetro {@code fields} está vazio, contém nomes desconhecidos ou não é aceito pela listagem.
+ */
+public class InvalidFieldsException extends RuntimeException {
+
+    public InvalidFieldsException(Set<String> invalid, Set<String> allowed) {
+        super((invalid.isEmpty() ? "Informe ao menos um campo" : "Campos desconhecidos: " + String.join(", ", invalid))
+                + ". Permitidos: " + String.join(", ", allowed));
+    }
+
+    private InvalidFieldsException(String message) {
+        super(message);
+    }
+
+    // Listagens cuja ordem ou paginação dependem de colunas fixas (busca ranqueada, ids, cursor)
+    public static InvalidFieldsException unsupported(String listing) {
+        return new InvalidFieldsException("O parâmetro fields não é aceito em " + listing);
+    }
+}
@@ -0,0 +1,104 @@
+package com.alura.forum.repository.fields;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Campo selecionável via {@code fields=}: adiciona à consulta só as colunas (e o join) de que precisa
+ * e lê o valor do {@link Tuple} no formato do JSON das projeções.
+ */
+public interface SparseField<E> {
+
+    String jsonName();
+
+    void select(Root<E> root, Map<String, Join<E, ?>> joins, List<Selection<?>> selections);
+
+    Object read(Tuple tuple);
+
+    static <E> SparseField<E> column(String jsonName, String attribute) {
+        return new Column<>(jsonName, attribute, Function.identity());
+    }
+
+    static <E> SparseField<E> column(String jsonName, String attribute, Function<Object, Object> converter) {
+        return new Column<>(jsonName, attribute, converter);
+    }
+
+    // Associação opcional (LEFT JOIN) exposta como {id, <label>}; o join é compartilhado entre campos
+    static <E> SparseField<E> reference(String jsonName, String association, String labelAttribute,
+                                        BiFunction<Long, String, Object> factory) {
+        return new Reference<>(jsonName, association, labelAttribute, factory);
+    }
+
+    // "id,title, author" -> campos na ordem pedida, sem repetição
+    static <F extends Enum<F> & SparseField<?>> List<F> parse(String fields, Class<F> type) {
+        Map<String, F> byName = new LinkedHashMap<>();
+        Arrays.stream(type.getEnumConstants()).forEach(field -> byName.put(field.jsonName(), field));
+        Set<F> selected = new LinkedHashSet<>();
+        Set<String> invalid = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) continue;
+            F field = byName.get(trimmed);
+            if (field == null) invalid.add(trimmed);
+            else selected.add(field);
+        }
+        if (!invalid.isEmpty() || selected.isEmpty()) throw new InvalidFieldsException(invalid, byName.keySet());
+        return List.copyOf(selected);
+    }
+
+    private static void selectOnce(List<Selection<?>> selections, String alias, Supplier<Selection<?>> selection) {
+        if (selections.stream().noneMatch(s -> alias.equals(s.getAlias()))) selections.add(selection.get().alias(alias));
+    }
+
+    record Column<E>(String jsonName, String attribute, Function<Object, Object> converter) implements SparseField<E> {
+
+        // O alias é o atributo: campos sobre a mesma coluna (status, statusName) compartilham uma seleção,
+        // já que o Hibernate reaproveita o mesmo path e um segundo alias sobrescreveria o primeiro
+        @Override
+        public void select(Root<E> root, Map<String, Join<E, ?>> joins, List<Selection<?>> selections) {
+            selectOnce(selections, attribute, () -> root.get(attribute));
+        }
+
+        @Override
+        public Object read(Tuple tuple) {
+            return converter.apply(tuple.get(attribute));
+        }
+    }
+
+    record Reference<E>(String jsonName, String association, String labelAttribute,
+                        BiFunction<Long, String, Object> factory) implements SparseField<E> {
+
+        @Override
+        public void select(Root<E> root, Map<String, Join<E, ?>> joins, List<Selection<?>> selections) {
+            Join<E, ?> join = joins.computeIfAbsent(association, a -> root.join(a, JoinType.LEFT));
+            selectOnce(selections, idAlias(), () -> join.get("id"));
+            selectOnce(selections, labelAlias(), () -> join.get(labelAttribute));
+        }
+
+        @Override
+        public Object read(Tuple tuple) {
+            return factory.apply(tuple.get(idAlias(), Long.class), tuple.get(labelAlias(), String.class));
+        }
+
+        private String idAlias() {
+            return association + "_id";
+        }
+
+        private String labelAlias() {
+            return association + "_" + labelAttribute;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.alura.forum.repository.fields;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Executa consultas Tuple que selecionam apenas as colunas e os joins dos campos pedidos.
+ */
+@Component
+public class SparseFieldQuery {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <E> List<Map<String, Object>> find(Class<E> type, List<? extends SparseField<E>> fields,
+                                              Specification<E> spec, Pageable pageable) {
+        return pageable.isPaged()
+                ? find(type, fields, spec, pageable, (int) pageable.getOffset(), pageable.getPageSize())
+                : find(type, fields, spec, pageable, 0, -1);
+    }
+
+    // Busca size + 1 linhas para saber se há próxima página, sem COUNT(*)
+    public <E> Slice<Map<String, Object>> findSlice(Class<E> type, List<? extends SparseField<E>> fields,
+                                                    Specification<E> spec, Pageable pageable) {
+        List<Map<String, Object>> rows = find(type, fields, spec, pageable,
+                (int) pageable.getOffset(), pageable.getPageSize() + 1);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    private <E> List<Map<String, Object>> find(Class<E> type, List<? extends SparseField<E>> fields,
+                                               Specification<E> spec, Pageable pageable, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(type);
+        Map<String, Join<E, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        fields.forEach(field -> field.select(root, joins, selections));
+        query.multiselect(selections);
+        Predicate where = spec.toPredicate(root, query, cb);
+        if (where != null) query.where(where);
+        if (pageable.getSort().isSorted()) query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Tuple> typed = entityManager.createQuery(query);
+        if (limit >= 0) typed.setFirstResult(offset).setMaxResults(limit);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : typed.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            fields.forEach(field -> row.put(field.jsonName(), field.read(tuple)));
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,54 @@
+package com.alura.forum.repository.fields;
+
+import com.alura.forum.model.entity.Topic;
+import com.alura.forum.model.entity.enums.TopicStatus;
+import com.alura.forum.model.projections.CategorySlim;
+import com.alura.forum.model.projections.CourseSlim;
+import com.alura.forum.model.projections.SubcategorySlim;
+import com.alura.forum.model.projections.TopicSlimDTO;
+import com.alura.forum.model.projections.UserSlim;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Campos de tópico aceitos em fields=, com os mesmos nomes do TopicSlimDTO/TopicCompleteDTO
+public enum TopicField implements SparseField<Topic> {
+    ID(SparseField.column("id", "id")),
+    TITLE(SparseField.column("title", "title")),
+    MESSAGE(SparseField.column("message", "message")),
+    CREATED_AT(SparseField.column("createdAt", "createdAt", v -> TopicSlimDTO.toInstant((LocalDateTime) v))),
+    STATUS(SparseField.column("status", "status")),
+    STATUS_NAME(SparseField.column("statusName", "status", v -> TopicStatus.nameOf((Integer) v))),
+    ANSWER_COUNT(SparseField.column("answerCount", "answerCount")),
+    LAST_ACTIVITY_AT(SparseField.column("lastActivityAt", "lastActivityAt", v -> TopicSlimDTO.toInstant((LocalDateTime) v))),
+    CATEGORY(SparseField.reference("category", "category", "name", CategorySlim::of)),
+    SUBCATEGORY(SparseField.reference("subcategory", "subcategory", "name", SubcategorySlim::of)),
+    COURSE(SparseField.reference("course", "course", "name", CourseSlim::of)),
+    AUTHOR(SparseField.reference("author", "author", "name", UserSlim::of));
+
+    private final SparseField<Topic> field;
+
+    TopicField(SparseField<Topic> field) {
+        this.field = field;
+    }
+
+    @Override
+    public String jsonName() {
+        return field.jsonName();
+    }
+
+    @Override
+    public void select(Root<Topic> root, Map<String, Join<Topic, ?>> joins, List<Selection<?>> selections) {
+        field.select(root, joins, selections);
+    }
+
+    @Override
+    public Object read(Tuple tuple) {
+        return field.read(tuple);
+    }
+}
@@ -0,0 +1,54 @@
+package com.alura.forum.repository.specification;
+
+import com.alura.forum.model.dto.request.TopicFilterDTO;
+import com.alura.forum.model.entity.Topic;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Traduz {@link TopicFilterDTO} em uma consulta contendo apenas os predicados informados,
+ * permitindo que o MySQL use os índices (fk_category, status, created_at) e (fk_course, created_at).
+ */
+public final class TopicSpecifications {
+
+    private TopicSpecifications() {
+    }
+
+    public static Specification<Topic> of(TopicFilterDTO filters) {
+        Specification<Topic> spec = Specification.where(null);
+        if (filters.getCategoryId() != null) spec = spec.and(categoryId(filters.getCategoryId()));
+        if (filters.getCourseId() != null) spec = spec.and(courseId(filters.getCourseId()));
+        if (filters.getStatus() != null) spec = spec.and(status(filters.getStatus().getId()));
+        if (filters.getStartDate() != null) spec = spec.and(createdFrom(filters.getStartDate()));
+        if (filters.getEndDate() != null) spec = spec.and(createdUntil(filters.getEndDate()));
+        if (filters.getTitle() != null && !filters.getTitle().isBlank()) spec = spec.and(titleContains(filters.getTitle()));
+        return spec;
+    }
+
+    public static Specification<Topic> categoryId(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+
+    public static Specification<Topic> courseId(Long courseId) {
+        return (root, query, cb) -> cb.equal(root.get("course").get("id"), courseId);
+    }
+
+    public static Specification<Topic> status(Integer status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Topic> createdFrom(LocalDateTime start) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), start);
+    }
+
+    public static Specification<Topic> createdUntil(LocalDateTime end) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("createdAt"), end);
+    }
+
+    // A collation padrão do MySQL já é case-insensitive: sem LOWER() na coluna
+    public static Specification<Topic> titleContains(String title) {
+        String escaped = title.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return (root, query, cb) -> cb.like(root.get("title"), "%" + escaped + "%", '\\');
+    }
+}
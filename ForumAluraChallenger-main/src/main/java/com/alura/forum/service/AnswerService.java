@@ -1,18 +1,43 @@
 package com.alura.forum.service;
 
 import com.alura.forum.core.crud.CrudService;
+import com.alura.forum.core.crud.VersionStamp;
+import com.alura.forum.core.pagination.Cursor;
+import com.alura.forum.core.pagination.CursorPage;
+import com.alura.forum.model.dto.response.MultiGetResponseDTO;
 import com.alura.forum.model.entity.Answer;
 import com.alura.forum.model.entity.Topic;
 import com.alura.forum.model.entity.User;
+import com.alura.forum.model.entity.enums.TopicStatus;
+import com.alura.forum.model.event.TopicEvent;
 import com.alura.forum.model.projections.AnswerSlim;
 import com.alura.forum.repository.AnswerRepository;
+import com.alura.forum.repository.TopicRepository;
+import com.alura.forum.repository.fields.AnswerField;
+import com.alura.forum.repository.fields.SparseField;
+import com.alura.forum.repository.fields.SparseFieldQuery;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class AnswerService extends CrudService<Answer, Long> {
@@ -20,6 +45,21 @@ public class AnswerService extends CrudService<Answer, Long> {
     @Autowired
     private AnswerRepository repository;
 
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private TopicCountService topicCountService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SparseFieldQuery sparseFieldQuery;
+
+    @Value("${spring.data.web.pageable.max-page-size:100}")
+    private int maxPageSize;
+
     @Override
     protected Answer editEntity(Answer oldEntity, Answer entityToSave) {
         oldEntity.setMessage(entityToSave.getMessage());
@@ -31,17 +71,105 @@ public class AnswerService extends CrudService<Answer, Long> {
         return super.save(entity);
     }
 
+    // A resposta pode ser a solução exibida no detalhe do tópico
+    @Override
+    public Answer edit(Long id, Answer entityToSave) {
+        Answer edited = super.edit(id, entityToSave);
+        eventPublisher.publishEvent(TopicEvent.of(TopicEvent.Type.UPDATED, edited.getTopic().getId()));
+        return edited;
+    }
+
+    @Override
+    public void patch(Long id, Answer partial) {
+        super.patch(id, partial);
+        repository.findTopicIdById(id)
+                .ifPresent(topicId -> eventPublisher.publishEvent(TopicEvent.of(TopicEvent.Type.UPDATED, topicId)));
+    }
+
+    @Override
+    protected Set<String> patchableAttributes() {
+        return Set.of("message");
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        Long topicId = repository.findTopicIdById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Answer with id " + id + " not exist!"));
+        super.deleteById(id);
+        topicRepository.unregisterAnswer(topicId);
+        eventPublisher.publishEvent(TopicEvent.of(TopicEvent.Type.UPDATED, topicId));
+    }
+
+    public MultiGetResponseDTO<AnswerSlim> findSlimByIds(List<Long> ids) {
+        List<Long> requested = multiGetIds(ids);
+        Map<Long, AnswerSlim> found = repository.findSlimByIdIn(requested).stream()
+                .collect(Collectors.toMap(AnswerSlim::id, Function.identity()));
+        return MultiGetResponseDTO.of(requested, found);
+    }
+
+    // NDJSON de /answers/stream: a transação (e o cursor) fica aberta até a última linha ser escrita
+    @Transactional(readOnly = true)
+    public void streamAllSlim(Consumer<AnswerSlim> consumer) {
+        try (Stream<AnswerSlim> answers = repository.streamSlimBy()) {
+            answers.forEach(consumer);
+        }
+    }
+
+    public String listingTagByTopicId(Long topicId) {
+        return VersionStamp.weak(repository.findVersionStampByTopicId(topicId).tag());
+    }
+
+    // Total vindo de topic.answer_count, sem COUNT(*) em answer, como nas listagens de tópicos
     public Page<AnswerSlim> findAllByTopicId(Long id, Pageable pageable) {
-        return repository.findAllByTopicId(id, pageable);
+        Slice<AnswerSlim> slice = repository.findSliceByTopicId(id, pageable);
+        return PageableExecutionUtils.getPage(slice.getContent(), pageable, () -> answerCount(id));
+    }
+
+    public Page<Map<String, Object>> findAllFieldsByTopicId(Long id, String fields, Pageable pageable) {
+        List<AnswerField> selected = SparseField.parse(fields, AnswerField.class);
+        Specification<Answer> byTopic = (root, query, cb) -> cb.equal(root.get("topic").get("id"), id);
+        List<Map<String, Object>> content = sparseFieldQuery.find(Answer.class, selected, byTopic, pageable);
+        return PageableExecutionUtils.getPage(content, pageable, () -> answerCount(id));
+    }
+
+    private long answerCount(Long topicId) {
+        return topicRepository.findAnswerCountById(topicId).orElse(0);
+    }
+
+    public Slice<AnswerSlim> findSliceByTopicId(Long id, Pageable pageable) {
+        return repository.findSliceByTopicId(id, pageable);
+    }
+
+    public CursorPage<AnswerSlim> findAllByTopicIdAndCursor(Long topicId, String cursorToken, int size) {
+        Cursor cursor = Cursor.decode(cursorToken);
+        int limit = Math.min(Math.max(size, 1), maxPageSize);
+        Pageable fetch = PageRequest.of(0, limit + 1);
+        List<AnswerSlim> rows;
+        if (cursor == null) rows = repository.findKeysetFirst(topicId, fetch);
+        else if (cursor.isForward()) rows = repository.findKeysetAfter(topicId, cursor.createdAt(), cursor.id(), fetch);
+        else rows = repository.findKeysetBefore(topicId, cursor.createdAt(), cursor.id(), fetch);
+        return CursorPage.of(rows, cursor, limit, a -> Cursor.next(a.createdAt(), a.id()));
     }
 
+    // Tópico do próprio autor NÃO SOLUCIONADO (ou já SOLUCIONADO, trocando a solução) resolvido por UPDATEs
+    // condicionais: marcações concorrentes não passam pelo dirty checking versionado da entidade
     public void setAnswerSolution(Long answerId) {
         User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        Answer answer = getReferenceByIdIfExist(answerId);
-        Topic topic = answer.getTopic();
-        if (!topic.getAuthor().equals(user))
-            throw new AccessDeniedException("You do not have access to this resource!");
-        topic.setAnswerSolution(answer);
+        Long topicId = repository.findTopicIdById(answerId)
+                .orElseThrow(() -> new EntityNotFoundException("Answer with id " + answerId + " not exist!"));
+        Answer answer = getReferenceById(answerId);
+        if (topicRepository.markSolution(topicId, answer, user.getId(), TopicStatus.NAO_SOLUCIONADO.getId()) == 1) {
+            topicCountService.onStatusChanged(TopicStatus.NAO_SOLUCIONADO.getId(), TopicStatus.SOLUCIONADO.getId());
+        } else if (topicRepository.markSolution(topicId, answer, user.getId(), TopicStatus.SOLUCIONADO.getId()) == 0) {
+            Topic topic = topicRepository.findById(topicId)
+                    .orElseThrow(() -> new EntityNotFoundException("Topic with id " + topicId + " not exist!"));
+            if (!topic.getAuthor().getId().equals(user.getId()))
+                throw new AccessDeniedException("You do not have access to this resource!");
+            Integer oldStatus = topic.getStatus();
+            topic.setAnswerSolution(answer);
+            topicCountService.onStatusChanged(oldStatus, topic.getStatus());
+        }
+        eventPublisher.publishEvent(new TopicEvent(TopicEvent.Type.SOLVED, topicId, answerId));
     }
 
     @Override
@@ -1,5 +1,6 @@
 package com.alura.forum.service;
 
+import com.alura.forum.infra.security.PrincipalCache;
 import com.alura.forum.infra.security.TokenService;
 import com.alura.forum.model.dto.request.LoginDTO;
 import com.alura.forum.model.dto.request.RegisterDTO;
@@ -9,6 +10,7 @@ import lombok.AllArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -16,17 +18,28 @@ import org.springframework.stereotype.Service;
 
 @Service
 @AllArgsConstructor
-public class AuthenticationService implements UserDetailsService {
+public class AuthenticationService implements UserDetailsService, UserDetailsPasswordService {
 
     private UserRepository userRepository;
     private PasswordEncoder passwordEncoder;
     private TokenService tokenService;
+    private PrincipalCache principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return userRepository.findByLogin(username);
     }
 
+    // Chamado pelo DaoAuthenticationProvider quando o hash armazenado usa um custo menor que o configurado
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = (User) userDetails;
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        principalCache.invalidate(user.getLogin());
+        return user;
+    }
+
     public String login(LoginDTO dados, AuthenticationManager manager) {
         var token = new UsernamePasswordAuthenticationToken(dados.login(), dados.password());
         var autentication = manager.authenticate(token);
@@ -39,6 +52,7 @@ public class AuthenticationService implements UserDetailsService {
         user.setLogin(dados.login());
         user.setPassword(passwordEncoder.encode(dados.password()));
         userRepository.save(user);
+        principalCache.invalidate(user.getLogin());
     }
 
 }
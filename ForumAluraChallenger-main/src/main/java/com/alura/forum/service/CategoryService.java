@@ -1,12 +1,11 @@
 package com.alura.forum.service;
 
-import com.alura.forum.core.crud.CrudService;
 import com.alura.forum.model.entity.Category;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class CategoryService extends CrudService<Category, Long> {
+public class CategoryService extends ReferenceDataService<Category> {
     @Override
     protected Category editEntity(Category oldEntity, Category entityToSave) {
         oldEntity.setName(entityToSave.getName());
@@ -15,8 +14,10 @@ public class CategoryService extends CrudService<Category, Long> {
 
     @Override
     public Category getReferenceByIdIfExist(Long id) {
-        if (!existsById(id)) throw new EntityNotFoundException("Category with id " + id + " not exist!");
-        return getReferenceById(id);
+        if (referenceData.categoryExists(id)) return repository.getReferenceById(id);
+        // Fora da cópia em memória: confirma no banco (findById passa pelo cache de segundo nível)
+        return repository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Category with id " + id + " not exist!"));
     }
 
 }
@@ -1,12 +1,11 @@
 package com.alura.forum.service;
 
-import com.alura.forum.core.crud.CrudService;
 import com.alura.forum.model.entity.Course;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class CourseService extends CrudService<Course, Long> {
+public class CourseService extends ReferenceDataService<Course> {
     @Override
     protected Course editEntity(Course oldEntity, Course entityToSave) {
         oldEntity.setName(entityToSave.getName());
@@ -15,7 +14,9 @@ public class CourseService extends CrudService<Course, Long> {
 
     @Override
     public Course getReferenceByIdIfExist(Long id) {
-        if (!existsById(id)) throw new EntityNotFoundException("Course with id " + id + " not exist!");
-        return getReferenceById(id);
+        if (referenceData.courseExists(id)) return repository.getReferenceById(id);
+        // Fora da cópia em memória: confirma no banco (findById passa pelo cache de segundo nível)
+        return repository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Course with id " + id + " not exist!"));
     }
 }
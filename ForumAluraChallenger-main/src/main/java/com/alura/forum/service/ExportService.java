@@ -0,0 +1,187 @@
+package com.alura.forum.service;
+
+import com.alura.forum.model.projections.AnswerSlim;
+import com.alura.forum.model.projections.TopicExportRow;
+import com.alura.forum.model.projections.TopicSlimDTO;
+import com.alura.forum.repository.TopicRepository;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Exportação completa dos tópicos (e, opcionalmente, das respostas) em NDJSON ou CSV.
+ * As linhas vêm de um cursor do lado do servidor e são escritas à medida que chegam; nada é acumulado
+ * além das respostas do tópico corrente.
+ */
+@Service
+public class ExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format of(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Formato de exportação inválido: " + value + " (use ndjson ou csv)");
+            }
+        }
+    }
+
+    // Tópico com as respostas no mesmo objeto JSON
+    record TopicWithAnswers(@JsonUnwrapped TopicSlimDTO topic, List<AnswerSlim> answers) {
+    }
+
+    private static final String TOPIC_HEADER = "id,title,createdAt,status,statusName,answerCount,lastActivityAt," +
+            "categoryId,categoryName,subcategoryId,subcategoryName,courseId,courseName,authorId,authorName";
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+    private static final String ANSWER_HEADER = ",answerId,answerMessage,answerCreatedAt,answerAuthorId,answerAuthorName";
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void exportTopics(OutputStream out, Format format, boolean withAnswers) throws IOException {
+        if (format == Format.NDJSON) {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out)) {
+                if (withAnswers) {
+                    try (Stream<TopicExportRow> rows = topicRepository.streamExportWithAnswers()) {
+                        groupByTopic(rows.iterator(), (topic, answers) -> write(writer, new TopicWithAnswers(topic, answers)));
+                    }
+                } else {
+                    try (Stream<TopicSlimDTO> topics = topicRepository.streamExport()) {
+                        topics.forEach(topic -> write(writer, topic));
+                    }
+                }
+            }
+            return;
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(withAnswers ? TOPIC_HEADER + ANSWER_HEADER : TOPIC_HEADER);
+        writer.write('\n');
+        if (withAnswers) {
+            try (Stream<TopicExportRow> rows = topicRepository.streamExportWithAnswers()) {
+                rows.forEach(row -> writeCsvLine(writer, row.topic(), row.answer(), true));
+            }
+        } else {
+            try (Stream<TopicSlimDTO> topics = topicRepository.streamExport()) {
+                topics.forEach(topic -> writeCsvLine(writer, topic, null, false));
+            }
+        }
+        writer.flush();
+    }
+
+    // As linhas chegam ordenadas por tópico: basta agrupar as consecutivas
+    private static void groupByTopic(Iterator<TopicExportRow> rows, TopicConsumer consumer) {
+        TopicSlimDTO current = null;
+        List<AnswerSlim> answers = new ArrayList<>();
+        while (rows.hasNext()) {
+            TopicExportRow row = rows.next();
+            if (current != null && !current.id().equals(row.topic().id())) {
+                consumer.accept(current, answers);
+                answers = new ArrayList<>();
+            }
+            current = row.topic();
+            if (row.answer() != null) answers.add(row.answer());
+        }
+        if (current != null) consumer.accept(current, answers);
+    }
+
+    @FunctionalInterface
+    private interface TopicConsumer {
+        void accept(TopicSlimDTO topic, List<AnswerSlim> answers);
+    }
+
+    private static void write(SequenceWriter writer, Object value) {
+        try {
+            writer.write(value);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void writeCsvLine(Writer writer, TopicSlimDTO topic, AnswerSlim answer, boolean withAnswers) {
+        StringBuilder line = new StringBuilder(256);
+        append(line, topic.id()).append(',');
+        append(line, topic.title()).append(',');
+        append(line, topic.createdAt()).append(',');
+        append(line, topic.status()).append(',');
+        append(line, topic.statusName()).append(',');
+        append(line, topic.answerCount()).append(',');
+        append(line, topic.lastActivityAt()).append(',');
+        append(line, topic.category() == null ? null : topic.category().id()).append(',');
+        append(line, topic.category() == null ? null : topic.category().name()).append(',');
+        append(line, topic.subcategory() == null ? null : topic.subcategory().id()).append(',');
+        append(line, topic.subcategory() == null ? null : topic.subcategory().name()).append(',');
+        append(line, topic.course() == null ? null : topic.course().id()).append(',');
+        append(line, topic.course() == null ? null : topic.course().name()).append(',');
+        append(line, topic.author() == null ? null : topic.author().id()).append(',');
+        append(line, topic.author() == null ? null : topic.author().name());
+        if (withAnswers) {
+            line.append(',');
+            append(line, answer == null ? null : answer.id()).append(',');
+            append(line, answer == null ? null : answer.message()).append(',');
+            append(line, answer == null ? null : answer.createdAt()).append(',');
+            append(line, answer == null || answer.author() == null ? null : answer.author().id()).append(',');
+            append(line, answer == null || answer.author() == null ? null : answer.author().name());
+        }
+        line.append('\n');
+        try {
+            writer.write(line.toString());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // RFC 4180: campos com vírgula, aspas ou quebra de linha vão entre aspas, com aspas duplicadas.
+    // Texto que começa com =, +, -, @, tab ou CR seria lido como fórmula pela planilha: ganha um ' na frente
+    private static StringBuilder append(StringBuilder line, Object value) {
+        if (value == null) return line;
+        String text = value.toString();
+        if (value instanceof String && !text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) text = "'" + text;
+        boolean quote = text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+        if (!quote) return line.append(text);
+        return line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+}
@@ -0,0 +1,68 @@
+package com.alura.forum.service;
+
+import com.alura.forum.core.crud.CrudDomain;
+import com.alura.forum.core.crud.CrudService;
+import com.alura.forum.infra.cache.ReferenceDataSnapshot;
+import com.alura.forum.model.event.ReferenceDataChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.GenericTypeResolver;
+
+import java.util.Set;
+
+/**
+ * Serviço dos dados de referência (categorias, subcategorias e cursos): toda escrita publica um
+ * {@link ReferenceDataChangedEvent} para que as visões derivadas sejam reconstruídas após o commit.
+ */
+public abstract class ReferenceDataService<E extends CrudDomain<Long>> extends CrudService<E, Long> {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    protected ReferenceDataSnapshot referenceData;
+
+    private final Class<?> entityType = GenericTypeResolver.resolveTypeArgument(getClass(), ReferenceDataService.class);
+
+    @Override
+    public E save(E entity) {
+        E saved = super.save(entity);
+        publishChange(saved.getId());
+        return saved;
+    }
+
+    @Override
+    public E edit(Long id, E entityToSave) {
+        E edited = super.edit(id, entityToSave);
+        publishChange(id);
+        return edited;
+    }
+
+    @Override
+    public void patch(Long id, E partial) {
+        super.patch(id, partial);
+        publishChange(id);
+    }
+
+    // Categorias, subcategorias e cursos só têm o nome editável
+    @Override
+    protected Set<String> patchableAttributes() {
+        return Set.of("name");
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        super.deleteById(id);
+        publishChange(id);
+    }
+
+    @Override
+    public void delete(E entity) {
+        super.delete(entity);
+        publishChange(entity.getId());
+    }
+
+    protected void publishChange(Long id) {
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(entityType, id));
+    }
+}
@@ -1,12 +1,11 @@
 package com.alura.forum.service;
 
-import com.alura.forum.core.crud.CrudService;
 import com.alura.forum.model.entity.Subcategory;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class SubcategoryService extends CrudService<Subcategory, Long> {
+public class SubcategoryService extends ReferenceDataService<Subcategory> {
     @Override
     protected Subcategory editEntity(Subcategory oldEntity, Subcategory entityToSave) {
         oldEntity.setName(entityToSave.getName());
@@ -15,7 +14,9 @@ public class SubcategoryService extends CrudService<Subcategory, Long> {
 
     @Override
     public Subcategory getReferenceByIdIfExist(Long id) {
-        if (!existsById(id)) throw new EntityNotFoundException("Subcategory with id " + id + " not exist!");
-        return getReferenceById(id);
+        if (referenceData.subcategoryExists(id)) return repository.getReferenceById(id);
+        // Fora da cópia em memória: confirma no banco (findById passa pelo cache de segundo nível)
+        return repository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Subcategory with id " + id + " not exist!"));
     }
 }
@@ -0,0 +1,213 @@
+package com.alura.forum.service;
+
+import com.alura.forum.core.crud.CrudDomain;
+import com.alura.forum.model.entity.Topic;
+import com.alura.forum.repository.TopicRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Totais de tópicos mantidos em memória por categoria, curso e status.
+ * Substituem o COUNT(*) das listagens paginadas. As escritas do TopicService registram deltas que só
+ * são aplicados depois do commit (rollback não altera os totais); o recálculo periódico corrige o que
+ * esta instância não vê, como escritas feitas por outras instâncias.
+ */
+@Service
+public class TopicCountService {
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    private volatile Counters counters = new Counters();
+
+    // Aplicação de deltas e troca dos contadores; deltas aplicados durante um recálculo são gravados
+    // em recording e reaplicados sobre os totais novos antes da troca. Um commit anterior às consultas
+    // cujo callback só rode depois do início da gravação é contado duas vezes até o recálculo seguinte
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private List<Consumer<Counters>> recording;
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${api.topics.count.refresh-interval-ms:60000}",
+            fixedDelayString = "${api.topics.count.refresh-interval-ms:60000}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            lock.lock();
+            try {
+                recording = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+            Counters fresh = new Counters();
+            try {
+                fresh.total.set(topicRepository.count());
+                fill(fresh.byCategory, topicRepository.countGroupedByCategory());
+                fill(fresh.byCourse, topicRepository.countGroupedByCourse());
+                fill(fresh.byStatus, topicRepository.countGroupedByStatus());
+            } catch (RuntimeException ex) {
+                stopRecording();
+                throw ex;
+            }
+            lock.lock();
+            try {
+                recording.forEach(delta -> delta.accept(fresh));
+                recording = null;
+                counters = fresh;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // Recálculo depois que a transação corrente confirmar (ex.: remoção concorrente detectada)
+    public void refreshAfterCommit() {
+        afterCommit(this::refresh);
+    }
+
+    public long total() {
+        return counters.total.get();
+    }
+
+    public long countByCategory(Long categoryId) {
+        return get(counters.byCategory, categoryId);
+    }
+
+    public long countByCourse(Long courseId) {
+        return get(counters.byCourse, courseId);
+    }
+
+    public long countByStatus(Integer status) {
+        return get(counters.byStatus, status);
+    }
+
+    public void onCreated(Topic topic) {
+        Long category = idOf(topic.getCategory()), course = idOf(topic.getCourse());
+        Integer status = topic.getStatus();
+        record(c -> {
+            c.total.incrementAndGet();
+            add(c.byCategory, category, 1);
+            add(c.byCourse, course, 1);
+            add(c.byStatus, status, 1);
+        });
+    }
+
+    public void onDeleted(Topic topic) {
+        onDeleted(idOf(topic.getCategory()), idOf(topic.getCourse()), topic.getStatus());
+    }
+
+    public void onDeleted(Long categoryId, Long courseId, Integer status) {
+        record(c -> {
+            c.total.decrementAndGet();
+            add(c.byCategory, categoryId, -1);
+            add(c.byCourse, courseId, -1);
+            add(c.byStatus, status, -1);
+        });
+    }
+
+    // Chamado antes de aplicar a edição, enquanto oldTopic ainda tem a categoria e o curso antigos
+    public void onMoved(Topic oldTopic, Topic newTopic) {
+        Long oldCategory = idOf(oldTopic.getCategory()), newCategory = idOf(newTopic.getCategory());
+        Long oldCourse = idOf(oldTopic.getCourse()), newCourse = idOf(newTopic.getCourse());
+        if (Objects.equals(oldCategory, newCategory) && Objects.equals(oldCourse, newCourse)) return;
+        record(c -> {
+            if (!Objects.equals(oldCategory, newCategory)) {
+                add(c.byCategory, oldCategory, -1);
+                add(c.byCategory, newCategory, 1);
+            }
+            if (!Objects.equals(oldCourse, newCourse)) {
+                add(c.byCourse, oldCourse, -1);
+                add(c.byCourse, newCourse, 1);
+            }
+        });
+    }
+
+    public void onStatusChanged(Integer oldStatus, Integer newStatus) {
+        if (Objects.equals(oldStatus, newStatus)) return;
+        record(c -> {
+            add(c.byStatus, oldStatus, -1);
+            add(c.byStatus, newStatus, 1);
+        });
+    }
+
+    private void record(Consumer<Counters> delta) {
+        afterCommit(() -> apply(delta));
+    }
+
+    // Sem transação ativa a ação roda na hora
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void apply(Consumer<Counters> delta) {
+        lock.lock();
+        try {
+            delta.accept(counters);
+            if (recording != null) recording.add(delta);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void stopRecording() {
+        lock.lock();
+        try {
+            recording = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Long idOf(CrudDomain<Long> entity) {
+        return entity == null ? null : entity.getId();
+    }
+
+    private static <K> void fill(Map<K, AtomicLong> target, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            @SuppressWarnings("unchecked")
+            K key = (K) row[0];
+            target.put(key, new AtomicLong(((Number) row[1]).longValue()));
+        }
+    }
+
+    private static <K> long get(Map<K, AtomicLong> map, K key) {
+        AtomicLong value = map.get(key);
+        return value == null ? 0 : Math.max(value.get(), 0);
+    }
+
+    private static <K> void add(Map<K, AtomicLong> map, K key, long delta) {
+        if (key == null) return;
+        map.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(delta);
+    }
+
+    private static class Counters {
+        private final AtomicLong total = new AtomicLong();
+        private final Map<Long, AtomicLong> byCategory = new ConcurrentHashMap<>();
+        private final Map<Long, AtomicLong> byCourse = new ConcurrentHashMap<>();
+        private final Map<Integer, AtomicLong> byStatus = new ConcurrentHashMap<>();
+    }
+}
@@ -1,23 +1,59 @@
 package com.alura.forum.service;
 
 import com.alura.forum.core.crud.CrudService;
+import com.alura.forum.core.pagination.Cursor;
+import com.alura.forum.core.pagination.CursorPage;
+import com.alura.forum.infra.cache.TopicDetailCache;
+import com.alura.forum.infra.cache.TopicListingVersion;
+import com.alura.forum.infra.search.SearchOperator;
+import com.alura.forum.infra.search.TopicSearchIndex;
+import com.alura.forum.model.dto.request.TopicBulkDeleteDTO;
 import com.alura.forum.model.dto.request.TopicFilterDTO;
+import com.alura.forum.model.dto.response.MultiGetResponseDTO;
 import com.alura.forum.model.entity.Answer;
 import com.alura.forum.model.entity.Topic;
 import com.alura.forum.model.entity.User;
 import com.alura.forum.model.entity.enums.TopicStatus;
-import com.alura.forum.model.projections.TopicCompleteDTO;
+import com.alura.forum.model.event.TopicEvent;
+import com.alura.forum.model.projections.TopicDetail;
+import com.alura.forum.model.projections.TopicDimensions;
 import com.alura.forum.model.projections.TopicSlimDTO;
 import com.alura.forum.repository.AnswerRepository;
 import com.alura.forum.repository.TopicRepository;
+import com.alura.forum.repository.fields.SparseField;
+import com.alura.forum.repository.fields.SparseFieldQuery;
+import com.alura.forum.repository.fields.TopicField;
+import com.alura.forum.repository.specification.TopicSpecifications;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
 
 @Service
 public class TopicService extends CrudService<Topic, Long> {
@@ -28,8 +64,36 @@ public class TopicService extends CrudService<Topic, Long> {
     @Autowired
     private AnswerRepository answerRepository;
 
+    @Autowired
+    private TopicCountService topicCountService;
+
+    @Autowired
+    private TopicSearchIndex topicSearchIndex;
+
+    @Autowired
+    private TopicDetailCache topicDetailCache;
+
+    @Autowired
+    private TopicListingVersion topicListingVersion;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SparseFieldQuery sparseFieldQuery;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${api.topics.bulk-delete.chunk-size:500}")
+    private int bulkDeleteChunkSize;
+
+    @Value("${spring.data.web.pageable.max-page-size:100}")
+    private int maxPageSize;
+
     @Override
     protected Topic editEntity(Topic oldEntity, Topic entityToSave) {
+        topicCountService.onMoved(oldEntity, entityToSave);
         oldEntity.setCategory(entityToSave.getCategory());
         oldEntity.setSubcategory(entityToSave.getSubcategory());
         oldEntity.setCourse(entityToSave.getCourse());
@@ -42,60 +106,263 @@ public class TopicService extends CrudService<Topic, Long> {
     public Topic save(Topic entity) {
         User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         entity.setAuthor(user);
-        return super.save(entity);
+        Topic saved = super.save(entity);
+        topicCountService.onCreated(saved);
+        eventPublisher.publishEvent(TopicEvent.of(TopicEvent.Type.CREATED, saved.getId()));
+        return saved;
+    }
+
+    @Override
+    public Topic edit(Long id, Topic entityToSave) {
+        Topic edited = super.edit(id, entityToSave);
+        eventPublisher.publishEvent(TopicEvent.of(TopicEvent.Type.UPDATED, id));
+        return edited;
+    }
+
+    @Override
+    public void patch(Long id, Topic partial) {
+        super.patch(id, partial);
+        eventPublisher.publishEvent(TopicEvent.of(TopicEvent.Type.UPDATED, id));
+    }
+
+    // Mudanças de categoria/curso continuam no PUT, que ajusta os contadores do TopicCountService
+    @Override
+    protected Set<String> patchableAttributes() {
+        return Set.of("title", "message");
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        if (deleteChunk(List.of(id)) == 0) throw new EntityNotFoundException("Topic with id " + id + " not exist!");
+    }
+
+    // Remove por ids ou filtro, em lotes de chunkSize ids, cada lote na sua própria transação
+    public long bulkDelete(TopicBulkDeleteDTO dto) {
+        boolean hasIds = dto.getIds() != null && !dto.getIds().isEmpty();
+        if (hasIds == (dto.getFilter() != null && hasAnyFilter(dto.getFilter())))
+            throw new IllegalArgumentException("Informe a lista de ids ou ao menos um filtro, mas não ambos");
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long deleted = 0;
+        if (hasIds) {
+            List<Long> ids = dto.getIds().stream().filter(Objects::nonNull).distinct().toList();
+            for (int from = 0; from < ids.size(); from += bulkDeleteChunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + bulkDeleteChunkSize, ids.size()));
+                deleted += transaction.execute(status -> deleteChunk(chunk));
+            }
+            return deleted;
+        }
+        Specification<Topic> spec = TopicSpecifications.of(dto.getFilter());
+        long afterId = 0;
+        while (true) {
+            List<Long> chunk = topicRepository.findIdsAfter(spec, afterId, bulkDeleteChunkSize);
+            if (chunk.isEmpty()) return deleted;
+            deleted += transaction.execute(status -> deleteChunk(chunk));
+            afterId = chunk.get(chunk.size() - 1);
+        }
+    }
+
+    // Solução, respostas e tópicos removidos com três comandos, sem carregar as entidades
+    private int deleteChunk(List<Long> ids) {
+        List<TopicDimensions> found = topicRepository.findDimensionsByIdIn(ids);
+        if (found.isEmpty()) return 0;
+        List<Long> foundIds = found.stream().map(TopicDimensions::id).toList();
+        topicRepository.clearAnswerSolutions(foundIds);
+        answerRepository.deleteByTopicIdIn(foundIds);
+        int deleted = topicRepository.deleteByIdIn(foundIds);
+        // Remoção concorrente: os contadores são recalculados (após o commit) em vez de decrementados
+        if (deleted == found.size()) {
+            found.forEach(t -> topicCountService.onDeleted(t.categoryId(), t.courseId(), t.status()));
+        } else {
+            topicCountService.refreshAfterCommit();
+        }
+        foundIds.forEach(id -> eventPublisher.publishEvent(TopicEvent.of(TopicEvent.Type.DELETED, id)));
+        return deleted;
+    }
+
+    private static boolean hasAnyFilter(TopicFilterDTO filter) {
+        return (filter.getTitle() != null && !filter.getTitle().isBlank())
+                || filter.getCategoryId() != null
+                || filter.getCourseId() != null
+                || filter.getStatus() != null
+                || filter.getStartDate() != null
+                || filter.getEndDate() != null;
     }
 
+    // Páginas usam o total mantido pelo TopicCountService em vez de COUNT(*)
     public Page<TopicSlimDTO> findAllSlim(Pageable pageable) {
-        return topicRepository.findAllBy(pageable);
+        Pageable resolved = resolveActivitySort(pageable);
+        Slice<TopicSlimDTO> slice = topicRepository.findSliceBy(resolved);
+        return PageableExecutionUtils.getPage(slice.getContent(), resolved, topicCountService::total);
+    }
+
+    // NDJSON de /topics/stream: mesma projeção e cursor da exportação
+    @Transactional(readOnly = true)
+    public void streamAllSlim(Consumer<TopicSlimDTO> consumer) {
+        try (Stream<TopicSlimDTO> topics = topicRepository.streamExport()) {
+            topics.forEach(consumer);
+        }
+    }
+
+    // fields=: só as colunas e joins pedidos entram no SQL
+    public Slice<Map<String, Object>> findAllFields(String fields, Pageable pageable, boolean sliceOnly) {
+        return findFields(fields, Specification.where(null), resolveActivitySort(pageable), sliceOnly,
+                topicCountService::total);
+    }
+
+    public Page<Map<String, Object>> findByFiltersFields(TopicFilterDTO filters, String fields, Pageable pageable) {
+        Specification<Topic> spec = TopicSpecifications.of(filters);
+        return findFieldsPage(fields, spec, pageable, () -> topicRepository.count(spec));
+    }
+
+    public Slice<Map<String, Object>> findByCategoryFields(Long categoryId, String fields, Pageable pageable, boolean sliceOnly) {
+        return findFields(fields, TopicSpecifications.categoryId(categoryId), pageable, sliceOnly,
+                () -> topicCountService.countByCategory(categoryId));
+    }
+
+    public Slice<Map<String, Object>> findByCourseFields(Long courseId, String fields, Pageable pageable, boolean sliceOnly) {
+        return findFields(fields, TopicSpecifications.courseId(courseId), pageable, sliceOnly,
+                () -> topicCountService.countByCourse(courseId));
+    }
+
+    public Slice<Map<String, Object>> findByStatusFields(TopicStatus status, String fields, Pageable pageable, boolean sliceOnly) {
+        return findFields(fields, TopicSpecifications.status(status.getId()), pageable, sliceOnly,
+                () -> topicCountService.countByStatus(status.getId()));
+    }
+
+    public Page<Map<String, Object>> findByDateRangeFields(LocalDateTime start, LocalDateTime end, String fields,
+                                                           Pageable pageable) {
+        Specification<Topic> spec = TopicSpecifications.createdFrom(start).and(TopicSpecifications.createdUntil(end));
+        return findFieldsPage(fields, spec, pageable, () -> topicRepository.count(spec));
+    }
+
+    private Slice<Map<String, Object>> findFields(String fields, Specification<Topic> spec, Pageable pageable,
+                                                  boolean sliceOnly, LongSupplier total) {
+        if (!sliceOnly) return findFieldsPage(fields, spec, pageable, total);
+        return sparseFieldQuery.findSlice(Topic.class, SparseField.parse(fields, TopicField.class), spec, pageable);
+    }
+
+    private Page<Map<String, Object>> findFieldsPage(String fields, Specification<Topic> spec, Pageable pageable,
+                                                     LongSupplier total) {
+        List<TopicField> selected = SparseField.parse(fields, TopicField.class);
+        List<Map<String, Object>> content = sparseFieldQuery.find(Topic.class, selected, spec, pageable);
+        return PageableExecutionUtils.getPage(content, pageable, total);
+    }
+
+    public Map<String, Object> findCompleteFields(Long id, String fields) {
+        List<TopicField> selected = SparseField.parse(fields, TopicField.class);
+        Specification<Topic> byId = (root, query, cb) -> cb.equal(root.get("id"), id);
+        return sparseFieldQuery.find(Topic.class, selected, byId, Pageable.unpaged()).stream().findFirst()
+                .orElseThrow(() -> new EntityNotFoundException("Topic with id " + id + " not found!"));
+    }
+
+    public Slice<TopicSlimDTO> findAllSlice(Pageable pageable) {
+        return topicRepository.findSliceBy(resolveActivitySort(pageable));
+    }
+
+    // sort=activity: atividade mais recente primeiro, usando o índice (last_activity_at, id)
+    private static Pageable resolveActivitySort(Pageable pageable) {
+        if (pageable.getSort().getOrderFor("activity") == null) return pageable;
+        Sort sort = Sort.by(Sort.Direction.DESC, "lastActivityAt", "id");
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    public CursorPage<TopicSlimDTO> findAllByCursor(String cursorToken, int size) {
+        Cursor cursor = Cursor.decode(cursorToken);
+        int limit = Math.min(Math.max(size, 1), maxPageSize);
+        Pageable fetch = PageRequest.of(0, limit + 1);
+        List<TopicSlimDTO> rows;
+        if (cursor == null) rows = topicRepository.findKeysetFirst(fetch);
+        else if (cursor.isForward()) rows = topicRepository.findKeysetBefore(cursor.createdAt(), cursor.id(), fetch);
+        else rows = topicRepository.findKeysetAfter(cursor.createdAt(), cursor.id(), fetch);
+        return CursorPage.of(rows, cursor, limit,
+                t -> Cursor.next(LocalDateTime.ofInstant(t.createdAt(), ZoneId.systemDefault()), t.id()));
     }
     
     public Page<Topic> findByFilters(TopicFilterDTO filters, Pageable pageable) {
-        return topicRepository.findByFilters(
-                filters.getTitle(),
-                filters.getCategoryId(),
-                filters.getCourseId(),
-                filters.getStatus(),
-                filters.getStartDate(),
-                filters.getEndDate(),
-                pageable
-        );
+        return topicRepository.findAll(TopicSpecifications.of(filters), pageable);
     }
     
-    public Page<TopicSlimDTO> findByTitle(String title, Pageable pageable) {
-        return topicRepository.findByTitleContainingIgnoreCase(title, pageable);
+    // Busca no índice invertido; enquanto ele é construído, recorre ao LIKE no título
+    public Page<TopicSlimDTO> search(String query, SearchOperator operator, Pageable pageable) {
+        if (!topicSearchIndex.isReady()) return topicRepository.findByTitleContainingIgnoreCase(query, pageable);
+        List<Long> rankedIds = topicSearchIndex.search(query, operator);
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+        List<Long> pageIds = rankedIds.subList(from, to);
+        if (pageIds.isEmpty()) return new PageImpl<>(List.of(), pageable, rankedIds.size());
+
+        Map<Long, Integer> position = new HashMap<>();
+        for (int i = 0; i < pageIds.size(); i++) position.put(pageIds.get(i), i);
+        List<TopicSlimDTO> content = topicRepository.findAllByIdIn(pageIds).stream()
+                .sorted(Comparator.comparing(t -> position.get(t.id())))
+                .toList();
+        return new PageImpl<>(content, pageable, rankedIds.size());
     }
     
-    public Page<TopicSlimDTO> findByCategory(Long categoryId, Pageable pageable) {
-        return topicRepository.findByCategoryId(categoryId, pageable);
+    public Slice<TopicSlimDTO> findByCategory(Long categoryId, Pageable pageable, boolean sliceOnly) {
+        Slice<TopicSlimDTO> slice = topicRepository.findSliceByCategoryId(categoryId, pageable);
+        if (sliceOnly) return slice;
+        return PageableExecutionUtils.getPage(slice.getContent(), pageable, () -> topicCountService.countByCategory(categoryId));
     }
     
-    public Page<TopicSlimDTO> findByCourse(Long courseId, Pageable pageable) {
-        return topicRepository.findByCourseId(courseId, pageable);
+    public Slice<TopicSlimDTO> findByCourse(Long courseId, Pageable pageable, boolean sliceOnly) {
+        Slice<TopicSlimDTO> slice = topicRepository.findSliceByCourseId(courseId, pageable);
+        if (sliceOnly) return slice;
+        return PageableExecutionUtils.getPage(slice.getContent(), pageable, () -> topicCountService.countByCourse(courseId));
     }
     
-    public Page<TopicSlimDTO> findByStatus(TopicStatus status, Pageable pageable) {
-        return topicRepository.findByStatus(status, pageable);
+    public Slice<TopicSlimDTO> findByStatus(TopicStatus status, Pageable pageable, boolean sliceOnly) {
+        Slice<TopicSlimDTO> slice = topicRepository.findSliceByStatus(status.getId(), pageable);
+        if (sliceOnly) return slice;
+        return PageableExecutionUtils.getPage(slice.getContent(), pageable, () -> topicCountService.countByStatus(status.getId()));
     }
     
     public Page<TopicSlimDTO> findByDateRange(LocalDateTime start, LocalDateTime end, Pageable pageable) {
         return topicRepository.findByCreatedAtBetween(start, end, pageable);
     }
 
-    public TopicCompleteDTO findComplete(Long id) {
-        return topicRepository.findTopicCompleteById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Topic with id " + id + " not found!"));
+    // Calculada em memória: nenhuma consulta antes do 304
+    public String listingTag() {
+        return topicListingVersion.tag();
+    }
+
+    // Detalhe e ETag vêm da mesma consulta e ficam juntos no cache: o 304 também não vai ao banco
+    public TopicDetail findDetail(Long id) {
+        return topicDetailCache.get(id, key -> topicRepository.findDetailById(key)
+                .orElseThrow(() -> new EntityNotFoundException("Topic with id " + key + " not found!")));
+    }
+
+    // Busca em lote: detalhes já em cache viram TopicSlimDTO; só as faltas vão ao banco, num único IN
+    public MultiGetResponseDTO<TopicSlimDTO> findSlimByIds(List<Long> ids) {
+        List<Long> requested = multiGetIds(ids);
+        Map<Long, TopicSlimDTO> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : requested) {
+            TopicDetail cached = topicDetailCache.getIfPresent(id);
+            if (cached != null) found.put(id, cached.topic().toSlim());
+            else misses.add(id);
+        }
+        if (!misses.isEmpty()) topicRepository.findSlimByIdIn(misses).forEach(t -> found.put(t.id(), t));
+        return MultiGetResponseDTO.of(requested, found);
     }
 
+    // Sem leituras prévias: UPDATE condicional na primeira resposta, incondicional nas demais; 0 linhas = 404.
+    // O save vem antes dos UPDATEs: ele reserva o id na answer_seq por outra conexão do pool, o que não pode
+    // acontecer com o lock da linha do tópico já tomado (as demais respostas esperariam o lock segurando
+    // as conexões de que esta precisa). O INSERT em si só sai no flush do commit, depois dos UPDATEs
     public Answer addAnswerToPost(Answer answer, Long idPost) {
-        Topic topic = getReferenceByIdIfExist(idPost);
         User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        answer.setTopic(topic);
         answer.setCreatedAt(LocalDateTime.now());
         answer.setAuthor(user);
-        if (topicRepository.findStatusById(idPost) == 1) {
-            topic.setStatus(TopicStatus.NAO_SOLUCIONADO.getId());
+        answer.setTopic(getReferenceById(idPost));
+        Answer saved = answerRepository.save(answer);
+        if (topicRepository.registerFirstAnswer(idPost, answer.getCreatedAt()) == 1) {
+            topicCountService.onStatusChanged(TopicStatus.SEM_RESPOSTAS.getId(), TopicStatus.NAO_SOLUCIONADO.getId());
+        } else if (topicRepository.registerAnswer(idPost, answer.getCreatedAt()) == 0) {
+            throw new EntityNotFoundException("Topic with id " + idPost + " not exist!");
         }
-        return answerRepository.save(answer);
+        eventPublisher.publishEvent(new TopicEvent(TopicEvent.Type.ANSWERED, idPost, saved.getId()));
+        return saved;
     }
 
     @Override
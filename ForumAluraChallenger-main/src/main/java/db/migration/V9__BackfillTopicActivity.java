@@ -0,0 +1,61 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Preenche answer_count e last_activity_at dos tópicos existentes em faixas de id,
+ * com um commit por faixa para não manter a tabela topic bloqueada durante todo o processo.
+ */
+public class V9__BackfillTopicActivity extends BaseJavaMigration {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final String BACKFILL = """
+            UPDATE topic t
+            LEFT JOIN (SELECT fk_topic, COUNT(*) AS total, MAX(created_at) AS last_answer
+                       FROM answer
+                       WHERE fk_topic BETWEEN ? AND ?
+                       GROUP BY fk_topic) a ON a.fk_topic = t.id
+            SET t.answer_count = COALESCE(a.total, 0),
+                t.last_activity_at = GREATEST(t.created_at, COALESCE(a.last_answer, t.created_at))
+            WHERE t.id BETWEEN ? AND ?
+            """;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+        try {
+            long maxId;
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM topic")) {
+                rs.next();
+                maxId = rs.getLong(1);
+            }
+            try (PreparedStatement update = connection.prepareStatement(BACKFILL)) {
+                for (long from = 1; from <= maxId; from += CHUNK_SIZE) {
+                    long to = from + CHUNK_SIZE - 1;
+                    update.setLong(1, from);
+                    update.setLong(2, to);
+                    update.setLong(3, from);
+                    update.setLong(4, to);
+                    update.executeUpdate();
+                }
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+-- Versão temporal para lock otimista e ETags; índices atendem MAX(version) sem varrer as tabelas
+ALTER TABLE topic ADD COLUMN version DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+ALTER TABLE answer ADD COLUMN version DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+ALTER TABLE category ADD COLUMN version DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+ALTER TABLE subcategory ADD COLUMN version DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+ALTER TABLE course ADD COLUMN version DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+
+CREATE INDEX idx_topic_version ON topic (version);
+CREATE INDEX idx_answer_topic_version ON answer (fk_topic, version);
+CREATE INDEX idx_answer_version ON answer (version);
+CREATE INDEX idx_category_version ON category (version);
+CREATE INDEX idx_subcategory_version ON subcategory (version);
+CREATE INDEX idx_course_version ON course (version);
@@ -0,0 +1,2 @@
+-- Filtro só por status (/topics/filter?status=, /topics/status/{status}) sem varredura completa
+CREATE INDEX idx_topic_status_created_at ON topic (status, created_at);
@@ -0,0 +1,4 @@
+-- Papel do usuário; a exclusão em lote de tópicos exige MODERATOR ou ADMIN
+ALTER TABLE user ADD COLUMN role VARCHAR(20) NOT NULL DEFAULT 'USER';
+
+UPDATE user SET role = 'ADMIN' WHERE login = 'admin';
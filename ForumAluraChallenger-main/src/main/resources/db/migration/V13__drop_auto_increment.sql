@@ -0,0 +1,21 @@
+-- Os ids vêm só das tabelas *_seq (V5). Com AUTO_INCREMENT ainda nas colunas, um INSERT sem id avançava
+-- o contador para faixas que a sequência entregaria depois, e o Hibernate colidia na chave primária.
+-- Sem ele, um INSERT sem id falha na hora em vez de reservar ids em silêncio.
+SET FOREIGN_KEY_CHECKS = 0;
+
+ALTER TABLE category MODIFY id INT NOT NULL;
+ALTER TABLE subcategory MODIFY id INT NOT NULL;
+ALTER TABLE course MODIFY id INT NOT NULL;
+ALTER TABLE user MODIFY id BIGINT NOT NULL;
+ALTER TABLE topic MODIFY id BIGINT NOT NULL;
+ALTER TABLE answer MODIFY id BIGINT NOT NULL;
+
+SET FOREIGN_KEY_CHECKS = 1;
+
+-- Ids já gerados pelo AUTO_INCREMENT depois da V5 ficam para trás da sequência
+UPDATE category_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 1 FROM category));
+UPDATE subcategory_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 1 FROM subcategory));
+UPDATE course_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 1 FROM course));
+UPDATE user_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 1 FROM user));
+UPDATE topic_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 1 FROM topic));
+UPDATE answer_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 1 FROM answer));
@@ -0,0 +1,31 @@
+-- Tabelas de sequência para o otimizador pooled-lo do Hibernate (MySQL não possui SEQUENCE).
+-- Cada tabela guarda o próximo id livre; os ids existentes são preservados.
+CREATE TABLE category_seq(
+    next_val BIGINT NOT NULL
+);
+INSERT INTO category_seq SELECT COALESCE(MAX(id), 0) + 1 FROM category;
+
+CREATE TABLE subcategory_seq(
+    next_val BIGINT NOT NULL
+);
+INSERT INTO subcategory_seq SELECT COALESCE(MAX(id), 0) + 1 FROM subcategory;
+
+CREATE TABLE course_seq(
+    next_val BIGINT NOT NULL
+);
+INSERT INTO course_seq SELECT COALESCE(MAX(id), 0) + 1 FROM course;
+
+CREATE TABLE user_seq(
+    next_val BIGINT NOT NULL
+);
+INSERT INTO user_seq SELECT COALESCE(MAX(id), 0) + 1 FROM user;
+
+CREATE TABLE topic_seq(
+    next_val BIGINT NOT NULL
+);
+INSERT INTO topic_seq SELECT COALESCE(MAX(id), 0) + 1 FROM topic;
+
+CREATE TABLE answer_seq(
+    next_val BIGINT NOT NULL
+);
+INSERT INTO answer_seq SELECT COALESCE(MAX(id), 0) + 1 FROM answer;
@@ -0,0 +1,3 @@
+CREATE INDEX idx_topic_created_at_id ON topic (created_at, id);
+
+CREATE INDEX idx_answer_topic_created_at_id ON answer (fk_topic, created_at, id);
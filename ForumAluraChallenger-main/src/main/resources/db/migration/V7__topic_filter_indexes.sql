@@ -0,0 +1,3 @@
+CREATE INDEX idx_topic_category_status_created_at ON topic (fk_category, status, created_at);
+
+CREATE INDEX idx_topic_course_created_at ON topic (fk_course, created_at);
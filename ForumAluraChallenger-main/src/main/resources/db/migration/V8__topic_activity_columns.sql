@@ -0,0 +1,7 @@
+-- Colunas desnormalizadas para a listagem por atividade; ADD COLUMN com DEFAULT é instantâneo no MySQL 8.
+-- O preenchimento das linhas existentes é feito em lotes pela migração Java V9.
+ALTER TABLE topic
+    ADD COLUMN answer_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN last_activity_at TIMESTAMP NULL;
+
+CREATE INDEX idx_topic_last_activity_at_id ON topic (last_activity_at, id);
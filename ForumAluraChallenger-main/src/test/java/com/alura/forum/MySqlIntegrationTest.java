@@ -0,0 +1,88 @@
+package com.alura.forum;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Base dos testes que precisam de um MySQL real (planos de execução, contagem de consultas, concorrência).
+ * Por padrão sobe um container com Testcontainers; com {@code -Dit.datasource.url=jdbc:mysql://...} usa o
+ * banco informado. Sem Docker e sem a propriedade, os testes são ignorados.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.alura.forum.SqlRecorder")
+@AutoConfigureMockMvc
+@ExtendWith(MySqlIntegrationTest.DatabaseAvailable.class)
+public abstract class MySqlIntegrationTest {
+
+    private static final String URL_PROPERTY = "it.datasource.url";
+
+    // Um container para todas as classes de teste; o Ryuk o remove ao final da JVM
+    private static MySQLContainer<?> container;
+
+    // Avaliada antes de o contexto Spring ser criado (@EnabledIf não é herdado pelas subclasses)
+    static class DatabaseAvailable implements ExecutionCondition {
+
+        @Override
+        public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+            if (System.getProperty(URL_PROPERTY) != null) return ConditionEvaluationResult.enabled(URL_PROPERTY + " informado");
+            if (DockerClientFactory.instance().isDockerAvailable()) return ConditionEvaluationResult.enabled("Docker disponível");
+            return ConditionEvaluationResult.disabled("Sem Docker e sem " + URL_PROPERTY);
+        }
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        String url = System.getProperty(URL_PROPERTY);
+        if (url != null) {
+            registry.add("spring.datasource.url", () -> url);
+            registry.add("spring.datasource.username", () -> System.getProperty("it.datasource.username", "root"));
+            registry.add("spring.datasource.password", () -> System.getProperty("it.datasource.password", ""));
+            return;
+        }
+        MySQLContainer<?> mysql = container();
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    /**
+     * Reserva {@code count} ids consecutivos na tabela {@code <table>_seq} e devolve o primeiro. As tabelas não
+     * têm AUTO_INCREMENT: linhas semeadas por SQL tiram o id da mesma sequência que o Hibernate usa.
+     */
+    protected static long reserveIds(JdbcTemplate jdbcTemplate, String table, int count) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("UPDATE " + table + "_seq SET next_val = LAST_INSERT_ID(next_val + " + count + ")");
+                try (ResultSet rs = statement.executeQuery("SELECT LAST_INSERT_ID()")) {
+                    rs.next();
+                    return rs.getLong(1) - count;
+                }
+            }
+        });
+    }
+
+    private static synchronized MySQLContainer<?> container() {
+        if (container == null) {
+            // V4 insere linhas sem created_at: mesmo modo SQL permissivo do ambiente de desenvolvimento
+            container = new MySQLContainer<>("mysql:8.0")
+                    .withDatabaseName("forum_alura")
+                    .withUrlParam("serverTimezone", "UTC")
+                    .withUrlParam("rewriteBatchedStatements", "true")
+                    .withCommand("--sql-mode=NO_ENGINE_SUBSTITUTION", "--explicit-defaults-for-timestamp=OFF");
+            container.start();
+        }
+        return container;
+    }
+}
@@ -0,0 +1,182 @@
+package com.alura.forum.controller;
+
+import com.alura.forum.MySqlIntegrationTest;
+import com.alura.forum.infra.security.TokenService;
+import com.alura.forum.model.entity.User;
+import com.alura.forum.model.entity.enums.TopicStatus;
+import com.alura.forum.repository.UserRepository;
+import com.alura.forum.service.TopicCountService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Várias threads respondendo (e marcando solução) no mesmo tópico ao mesmo tempo: os UPDATEs condicionais
+ * não perdem incrementos do contador de respostas e a mudança de status acontece uma única vez.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AnswerConcurrencyTest extends MySqlIntegrationTest {
+
+    private static final String LOGIN = "concurrency@forum.com";
+    private static final int THREADS = 16;
+    private static final int ANSWERS_PER_THREAD = 25;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private TopicCountService topicCountService;
+
+    private Long authorId;
+    private String token;
+    private Long topicId;
+
+    @BeforeAll
+    void seedAuthor() {
+        authorId = reserveIds(jdbcTemplate, "user", 1);
+        jdbcTemplate.update("INSERT INTO user (id, login, password, name) VALUES (?, ?, 'x', 'Concorrência')", authorId, LOGIN);
+        token = tokenService.gerarToken((User) userRepository.findByLogin(LOGIN));
+    }
+
+    @BeforeEach
+    void seedTopic() {
+        Long categoryId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM category", Long.class);
+        topicId = reserveIds(jdbcTemplate, "topic", 1);
+        jdbcTemplate.update("INSERT INTO topic (id, title, message, created_at, status, fk_category, fk_user) " +
+                "VALUES (?, 'concorrência', 'mensagem', NOW(), '1', ?, ?)", topicId, categoryId, authorId);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("UPDATE topic SET fk_answer_solution = NULL WHERE fk_user = ?", authorId);
+        jdbcTemplate.update("DELETE FROM answer WHERE fk_author = ?", authorId);
+        jdbcTemplate.update("DELETE FROM topic WHERE fk_user = ?", authorId);
+        jdbcTemplate.update("DELETE FROM user WHERE id = ?", authorId);
+    }
+
+    @Test
+    void concurrentAnswersAreAllCountedAndMoveStatusOnce() throws Exception {
+        long unanswered = topicCountService.countByStatus(TopicStatus.SEM_RESPOSTAS.getId());
+        long unsolved = topicCountService.countByStatus(TopicStatus.NAO_SOLUCIONADO.getId());
+
+        List<Integer> statuses = runConcurrently(THREADS, thread -> {
+            List<Integer> codes = new ArrayList<>();
+            for (int i = 0; i < ANSWERS_PER_THREAD; i++) {
+                codes.add(postAnswer(topicId, "resposta " + thread + "-" + i));
+            }
+            return codes;
+        });
+
+        int total = THREADS * ANSWERS_PER_THREAD;
+        assertThat(statuses).hasSize(total).containsOnly(200);
+        assertThat(jdbcTemplate.queryForObject("SELECT answer_count FROM topic WHERE id = ?", Integer.class, topicId))
+                .isEqualTo(total);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM answer WHERE fk_topic = ?", Integer.class, topicId))
+                .isEqualTo(total);
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM topic WHERE id = ?", String.class, topicId))
+                .isEqualTo(String.valueOf(TopicStatus.NAO_SOLUCIONADO.getId()));
+        // Commits fora da ordem de criação não fazem a última atividade voltar no tempo
+        assertThat(jdbcTemplate.queryForObject("SELECT last_activity_at = (SELECT MAX(created_at) FROM answer WHERE fk_topic = ?) " +
+                "FROM topic WHERE id = ?", Boolean.class, topicId, topicId)).isTrue();
+        assertThat(topicCountService.countByStatus(TopicStatus.SEM_RESPOSTAS.getId())).isEqualTo(Math.max(unanswered - 1, 0));
+        assertThat(topicCountService.countByStatus(TopicStatus.NAO_SOLUCIONADO.getId())).isEqualTo(unsolved + 1);
+    }
+
+    @Test
+    void concurrentSolutionsMoveStatusOnce() throws Exception {
+        for (int i = 0; i < THREADS; i++) assertThat(postAnswer(topicId, "candidata " + i)).isEqualTo(200);
+        List<Long> answers = jdbcTemplate.queryForList("SELECT id FROM answer WHERE fk_topic = ?", Long.class, topicId);
+        long unsolved = topicCountService.countByStatus(TopicStatus.NAO_SOLUCIONADO.getId());
+        long solved = topicCountService.countByStatus(TopicStatus.SOLUCIONADO.getId());
+
+        List<Integer> statuses = runConcurrently(THREADS, thread -> List.of(mockMvc.perform(
+                        post("/answers/{id}/answer_solution", answers.get(thread)).header("Authorization", "Bearer " + token))
+                .andReturn().getResponse().getStatus()));
+
+        assertThat(statuses).containsOnly(200);
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM topic WHERE id = ?", String.class, topicId))
+                .isEqualTo(String.valueOf(TopicStatus.SOLUCIONADO.getId()));
+        assertThat(jdbcTemplate.queryForObject("SELECT fk_answer_solution FROM topic WHERE id = ?", Long.class, topicId))
+                .isIn(answers);
+        assertThat(topicCountService.countByStatus(TopicStatus.NAO_SOLUCIONADO.getId())).isEqualTo(Math.max(unsolved - 1, 0));
+        assertThat(topicCountService.countByStatus(TopicStatus.SOLUCIONADO.getId())).isEqualTo(solved + 1);
+    }
+
+    @Test
+    void olderAnswerDoesNotMoveLastActivityBack() throws Exception {
+        jdbcTemplate.update("UPDATE topic SET last_activity_at = NOW() + INTERVAL 1 DAY WHERE id = ?", topicId);
+        String later = jdbcTemplate.queryForObject("SELECT last_activity_at FROM topic WHERE id = ?", String.class, topicId);
+
+        assertThat(postAnswer(topicId, "primeira")).isEqualTo(200);
+        assertThat(postAnswer(topicId, "segunda")).isEqualTo(200);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT last_activity_at FROM topic WHERE id = ?", String.class, topicId))
+                .isEqualTo(later);
+    }
+
+    @Test
+    void answerToMissingTopicIsNotFound() throws Exception {
+        assertThat(postAnswer(Long.MAX_VALUE, "sem tópico")).isEqualTo(404);
+    }
+
+    private int postAnswer(Long topic, String message) throws Exception {
+        return mockMvc.perform(post("/topics/{id}/answers", topic)
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"message\":\"" + message + "\"}"))
+                .andReturn().getResponse().getStatus();
+    }
+
+    // Todas as threads partem juntas para maximizar a disputa pela linha do tópico
+    private static <T> List<T> runConcurrently(int threads, ThreadTask<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<T>>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int thread = i;
+                futures.add(executor.submit((Callable<List<T>>) () -> {
+                    start.await();
+                    return task.run(thread);
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<List<T>> future : futures) results.addAll(future.get());
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask<T> {
+        List<T> run(int thread) throws Exception;
+    }
+}
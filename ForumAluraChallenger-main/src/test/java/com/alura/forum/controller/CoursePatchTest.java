@@ -0,0 +1,80 @@
+package com.alura.forum.controller;
+
+import com.alura.forum.MySqlIntegrationTest;
+import com.alura.forum.infra.security.TokenService;
+import com.alura.forum.model.entity.User;
+import com.alura.forum.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * PATCH de curso com corpo parcial: só o nome muda e a subcategoria ausente do corpo fica como estava.
+ */
+class CoursePatchTest extends MySqlIntegrationTest {
+
+    private static final String NAME = "patch-curso";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    private String token;
+    private Long subcategoryId;
+    private Long courseId;
+
+    @BeforeEach
+    void createCourse() throws Exception {
+        token = tokenService.gerarToken((User) userRepository.findByLogin("admin"));
+        subcategoryId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM subcategory", Long.class);
+        mockMvc.perform(post("/courses").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"" + NAME + "\",\"subcategoryId\":" + subcategoryId + "}"))
+                .andExpect(status().isCreated());
+        courseId = jdbcTemplate.queryForObject("SELECT id FROM course WHERE name = ?", Long.class, NAME);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM course WHERE id = ?", courseId);
+    }
+
+    @Test
+    void patchByNameOnlyKeepsTheSubcategory() throws Exception {
+        mockMvc.perform(patch("/courses/{id}", courseId).header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"" + NAME + "-renomeado\"}"))
+                .andExpect(status().isNoContent());
+
+        Map<String, Object> course = jdbcTemplate.queryForMap("SELECT name, fk_subcategory FROM course WHERE id = ?", courseId);
+        assertThat(course.get("name")).isEqualTo(NAME + "-renomeado");
+        assertThat(((Number) course.get("fk_subcategory")).longValue()).isEqualTo(subcategoryId);
+    }
+
+    @Test
+    void patchWithoutChangesIsRejected() throws Exception {
+        mockMvc.perform(patch("/courses/{id}", courseId).header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,77 @@
+package com.alura.forum.controller;
+
+import com.alura.forum.MySqlIntegrationTest;
+import com.alura.forum.SqlRecorder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Páginas de /topics/{id}/answers: o total vem de topic.answer_count, sem COUNT(*) sobre answer.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TopicAnswersPageTest extends MySqlIntegrationTest {
+
+    private static final String TITLE = "answers-page";
+    private static final int ANSWERS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long topicId;
+
+    @BeforeAll
+    void seed() {
+        Long categoryId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM category", Long.class);
+        Long authorId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM user", Long.class);
+        topicId = reserveIds(jdbcTemplate, "topic", 1);
+        jdbcTemplate.update("INSERT INTO topic (id, title, message, created_at, status, answer_count, fk_category, fk_user) " +
+                "VALUES (?, ?, 'mensagem', NOW(), '2', ?, ?, ?)", topicId, TITLE, ANSWERS, categoryId, authorId);
+        long firstAnswer = reserveIds(jdbcTemplate, "answer", ANSWERS);
+        jdbcTemplate.batchUpdate("INSERT INTO answer (id, message, created_at, fk_author, fk_topic) VALUES (?, 'resposta', NOW(), ?, ?)",
+                LongStream.range(0, ANSWERS).mapToObj(i -> new Object[]{firstAnswer + i, authorId, topicId}).toList());
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM answer WHERE fk_topic = ?", topicId);
+        jdbcTemplate.update("DELETE FROM topic WHERE id = ?", topicId);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "id,message"})
+    void totalComesFromTheAnswerCounter(String fields) throws Exception {
+        MockHttpServletRequestBuilder request = get("/topics/{id}/answers", topicId).param("size", "2");
+        if (!fields.isEmpty()) request.param("fields", fields);
+        SqlRecorder.start();
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.totalElements").value(ANSWERS))
+                .andExpect(jsonPath("$.totalPages").value(2));
+
+        List<String> statements = SqlRecorder.stop();
+        // O COUNT/MAX(version) da ETag é atendido pelo idx_answer_topic_version; o total da página não conta linhas
+        assertThat(statements).as("SQL emitido: %s", statements)
+                .noneMatch(sql -> sql.startsWith("select count(") && !sql.contains("max("));
+        assertThat(statements).anyMatch(sql -> sql.startsWith("select t1_0.answer_count from topic t1_0"));
+    }
+}
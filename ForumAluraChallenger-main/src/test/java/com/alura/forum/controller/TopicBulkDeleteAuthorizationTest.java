@@ -0,0 +1,117 @@
+package com.alura.forum.controller;
+
+import com.alura.forum.MySqlIntegrationTest;
+import com.alura.forum.infra.security.TokenService;
+import com.alura.forum.model.entity.User;
+import com.alura.forum.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /topics/bulk-delete só para MODERATOR e ADMIN: usuários comuns e anônimos recebem 403 e nada é removido.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TopicBulkDeleteAuthorizationTest extends MySqlIntegrationTest {
+
+    private static final String LOGIN_PREFIX = "bulkauth-";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    private Long authorId;
+
+    @BeforeAll
+    void seed() {
+        for (String role : new String[]{"USER", "MODERATOR", "ADMIN"}) {
+            jdbcTemplate.update("INSERT INTO user (id, login, password, name, role) VALUES (?, ?, 'x', ?, ?)",
+                    reserveIds(jdbcTemplate, "user", 1), LOGIN_PREFIX + role.toLowerCase() + "@forum.com", "Papel " + role, role);
+        }
+        authorId = jdbcTemplate.queryForObject("SELECT id FROM user WHERE login = ?", Long.class,
+                LOGIN_PREFIX + "user@forum.com");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM topic WHERE fk_user = ?", authorId);
+        jdbcTemplate.update("DELETE FROM user WHERE login LIKE ?", LOGIN_PREFIX + "%");
+    }
+
+    @Test
+    void regularUserIsForbidden() throws Exception {
+        Long topicId = insertTopic();
+
+        mockMvc.perform(bulkDelete(topicId).header("Authorization", "Bearer " + tokenFor("user")))
+                .andExpect(status().isForbidden());
+
+        assertThat(exists(topicId)).isTrue();
+    }
+
+    @Test
+    void anonymousIsForbidden() throws Exception {
+        Long topicId = insertTopic();
+
+        mockMvc.perform(bulkDelete(topicId)).andExpect(status().isForbidden());
+
+        assertThat(exists(topicId)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"moderator", "admin"})
+    void moderatorAndAdminCanDelete(String role) throws Exception {
+        Long topicId = insertTopic();
+
+        mockMvc.perform(bulkDelete(topicId).header("Authorization", "Bearer " + tokenFor(role)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1));
+
+        assertThat(exists(topicId)).isFalse();
+    }
+
+    private MockHttpServletRequestBuilder bulkDelete(Long topicId) {
+        return post("/topics/bulk-delete").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[" + topicId + "]}");
+    }
+
+    private String tokenFor(String role) {
+        return tokenService.gerarToken((User) userRepository.findByLogin(LOGIN_PREFIX + role + "@forum.com"));
+    }
+
+    private Long insertTopic() {
+        Long categoryId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM category", Long.class);
+        Long topicId = reserveIds(jdbcTemplate, "topic", 1);
+        jdbcTemplate.update("INSERT INTO topic (id, title, message, created_at, status, fk_category, fk_user) " +
+                        "VALUES (?, 'bulk-delete', 'mensagem', ?, '1', ?, ?)",
+                topicId, Timestamp.valueOf(LocalDateTime.now()), categoryId, authorId);
+        return topicId;
+    }
+
+    private boolean exists(Long topicId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM topic WHERE id = ?", Integer.class, topicId) == 1;
+    }
+}
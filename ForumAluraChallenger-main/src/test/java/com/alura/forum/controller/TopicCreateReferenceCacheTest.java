@@ -0,0 +1,106 @@
+package com.alura.forum.controller;
+
+import com.alura.forum.MySqlIntegrationTest;
+import com.alura.forum.SqlRecorder;
+import com.alura.forum.infra.security.TokenService;
+import com.alura.forum.model.entity.User;
+import com.alura.forum.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Criação de tópico com o cache de segundo nível aquecido: categoria, subcategoria, curso e usuário saem
+ * do cache (ou da cópia em memória do ReferenceDataSnapshot), sem nenhum SELECT nessas tabelas.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TopicCreateReferenceCacheTest extends MySqlIntegrationTest {
+
+    private static final String LOGIN = "l2cache@forum.com";
+    private static final Pattern REFERENCE_TABLE = Pattern.compile("\\b(from|join)\\s+(category|subcategory|course|user)\\b");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long authorId;
+    private String token;
+    private Map<String, Object> course;
+
+    @BeforeAll
+    void seed() {
+        authorId = reserveIds(jdbcTemplate, "user", 1);
+        jdbcTemplate.update("INSERT INTO user (id, login, password, name) VALUES (?, ?, 'x', 'Cache L2')", authorId, LOGIN);
+        token = tokenService.gerarToken((User) userRepository.findByLogin(LOGIN));
+        course = jdbcTemplate.queryForMap("SELECT c.id AS course, s.id AS subcategory, s.fk_category AS category " +
+                "FROM course c JOIN subcategory s ON s.id = c.fk_subcategory ORDER BY c.id LIMIT 1");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM topic WHERE fk_user = ?", authorId);
+        jdbcTemplate.update("DELETE FROM user WHERE id = ?", authorId);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"course", "category+subcategory"})
+    void warmCreateIssuesNoReferenceDataSelects(String by) throws Exception {
+        String body = by.equals("course")
+                ? "{\"title\":\"cache\",\"message\":\"mensagem\",\"categoryId\":%s,\"courseID\":%s}"
+                .formatted(course.get("category"), course.get("course"))
+                : "{\"title\":\"cache\",\"message\":\"mensagem\",\"categoryId\":%s,\"subcategoryId\":%s}"
+                .formatted(course.get("category"), course.get("subcategory"));
+        create(body);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        SqlRecorder.start();
+        create(body);
+        List<String> statements = SqlRecorder.stop();
+
+        assertThat(statements).as("SQL emitido: %s", statements)
+                .filteredOn(sql -> sql.startsWith("select") && REFERENCE_TABLE.matcher(sql).find())
+                .isEmpty();
+        assertThat(statements).anyMatch(sql -> sql.startsWith("insert into topic"));
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+        assertThat(statistics.getSecondLevelCacheMissCount()).isZero();
+    }
+
+    private void create(String body) throws Exception {
+        mockMvc.perform(post("/topics")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.category").isNotEmpty());
+    }
+}
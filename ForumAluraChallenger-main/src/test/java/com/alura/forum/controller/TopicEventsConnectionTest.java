@@ -0,0 +1,50 @@
+package com.alura.forum.controller;
+
+import com.alura.forum.MySqlIntegrationTest;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Assinantes SSE de um tópico não seguram conexões do pool enquanto o stream está aberto: a verificação de
+ * existência devolve a conexão ao fim da própria transação (sem open-in-view).
+ */
+class TopicEventsConnectionTest extends MySqlIntegrationTest {
+
+    private static final int SUBSCRIBERS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void openStreamsHoldNoConnection() throws Exception {
+        Long topicId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM topic", Long.class);
+        List<MvcResult> streams = new ArrayList<>();
+
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            streams.add(mockMvc.perform(get("/topics/{id}/events", topicId))
+                    .andExpect(request().asyncStarted())
+                    .andReturn());
+        }
+
+        assertThat(streams).allSatisfy(stream -> assertThat(stream.getRequest().isAsyncStarted()).isTrue());
+        assertThat(dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().getActiveConnections()).isZero();
+    }
+}
@@ -0,0 +1,95 @@
+package com.alura.forum.controller;
+
+import com.alura.forum.MySqlIntegrationTest;
+import com.alura.forum.SqlRecorder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /topics/filter com o entity graph: a página inteira sai de um SELECT (mais o COUNT da página),
+ * sem carregamentos preguiçosos por linha, qualquer que seja o tamanho da página.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TopicFilterQueryCountTest extends MySqlIntegrationTest {
+
+    private static final String TITLE_PREFIX = "nplus1-";
+    private static final int TOPICS = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Autores, categorias, subcategorias e cursos diferentes por linha, para que nada venha de uma única carga
+    @BeforeAll
+    void seed() {
+        long firstUser = reserveIds(jdbcTemplate, "user", 3);
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("INSERT INTO user (id, login, password, name) VALUES (?, ?, 'x', ?)",
+                    firstUser + i, TITLE_PREFIX + i + "@forum.com", "Autor " + i);
+        }
+        List<Long> authors = jdbcTemplate.queryForList("SELECT id FROM user WHERE login LIKE ?", Long.class, TITLE_PREFIX + "%");
+        List<Long> categories = jdbcTemplate.queryForList("SELECT id FROM category", Long.class);
+        List<Long> subcategories = jdbcTemplate.queryForList("SELECT id FROM subcategory", Long.class);
+        List<Long> courses = jdbcTemplate.queryForList("SELECT id FROM course", Long.class);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long firstTopic = reserveIds(jdbcTemplate, "topic", TOPICS);
+        List<Object[]> rows = IntStream.range(0, TOPICS)
+                .mapToObj(i -> new Object[]{firstTopic + i, TITLE_PREFIX + i, now, categories.get(i % categories.size()),
+                        subcategories.get(i % subcategories.size()), courses.get(i % courses.size()),
+                        authors.get(i % authors.size())})
+                .toList();
+        jdbcTemplate.batchUpdate("INSERT INTO topic (id, title, message, created_at, status, fk_category, fk_subcategory, " +
+                "fk_course, fk_user) VALUES (?, ?, 'mensagem', ?, '1', ?, ?, ?, ?)", rows);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM topic WHERE title LIKE ?", TITLE_PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM user WHERE login LIKE ?", TITLE_PREFIX + "%");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20})
+    void pageIsLoadedWithConstantNumberOfStatements(int size) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        SqlRecorder.start();
+
+        mockMvc.perform(get("/topics/filter").param("title", TITLE_PREFIX).param("size", String.valueOf(size)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(size))
+                .andExpect(jsonPath("$.content[0].user").isNotEmpty())
+                .andExpect(jsonPath("$.content[0].course.nome").isNotEmpty());
+
+        List<String> statements = SqlRecorder.stop();
+        assertThat(statements).as("SQL emitido: %s", statements).hasSize(2);
+        assertThat(statements.get(0)).contains(" join category ", " join subcategory ", " join course ", " join user ");
+        assertThat(statements.get(1)).startsWith("select count(");
+        assertThat(statistics.getEntityFetchCount()).isZero();
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+    }
+}
@@ -0,0 +1,134 @@
+package com.alura.forum.controller;
+
+import com.alura.forum.MySqlIntegrationTest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Combinações de parâmetros das listagens de tópicos que escolhem o método do controller: cada uma cai em um
+ * único mapeamento ou é recusada com 400, nunca em um mapeamento ambíguo nem com parâmetros ignorados.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TopicListingParamsTest extends MySqlIntegrationTest {
+
+    private static final String TITLE = "listing-params";
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2020, 2, 29, 12, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Map<String, Object> topic;
+
+    // Um tópico sem respostas com curso, para que todas as listagens filtradas tenham ao menos uma linha
+    @BeforeAll
+    void seed() {
+        Map<String, Object> course = jdbcTemplate.queryForMap("SELECT c.id AS course, s.id AS subcategory, " +
+                "s.fk_category AS category FROM course c JOIN subcategory s ON s.id = c.fk_subcategory ORDER BY c.id LIMIT 1");
+        jdbcTemplate.update("INSERT INTO topic (id, title, message, created_at, status, fk_category, fk_subcategory, fk_course, fk_user) " +
+                        "VALUES (?, ?, 'mensagem', ?, '1', ?, ?, ?, (SELECT MIN(id) FROM user))",
+                reserveIds(jdbcTemplate, "topic", 1), TITLE, Timestamp.valueOf(CREATED_AT), course.get("category"), course.get("subcategory"), course.get("course"));
+        topic = jdbcTemplate.queryForMap("SELECT fk_category AS category, fk_course AS course FROM topic WHERE title = ?", TITLE);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM topic WHERE title = ?", TITLE);
+    }
+
+    @Test
+    void idsAloneIsMultiGet() throws Exception {
+        mockMvc.perform(get("/topics").param("ids", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isArray());
+    }
+
+    @Test
+    void cursorAloneIsKeysetPage() throws Exception {
+        mockMvc.perform(get("/topics").param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isArray());
+    }
+
+    // status e statusName leem a mesma coluna: uma única seleção serve aos dois campos
+    @Test
+    void fieldsOverTheSameColumnAreBothFilled() throws Exception {
+        mockMvc.perform(get("/topics").param("fields", "status,statusName").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].status").isNumber())
+                .andExpect(jsonPath("$.content[0].statusName").isString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/topics", "/topics/filter", "/topics/category/{id}", "/topics/course/{id}",
+            "/topics/status/SEM_RESPOSTAS", "/topics/date-range"})
+    void listingReturnsOnlyRequestedFields(String path) throws Exception {
+        mockMvc.perform(listing(path).param("fields", "id,category"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").isNumber())
+                .andExpect(jsonPath("$.content[0].category.id").isNumber())
+                .andExpect(jsonPath("$.content[0].title").doesNotExist());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/topics", "/topics/category/{id}", "/topics/course/{id}", "/topics/status/SEM_RESPOSTAS"})
+    void sliceIsHonoredWithFields(String path) throws Exception {
+        mockMvc.perform(listing(path).param("fields", "id").param("slice", "true").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void unknownFieldIsRejectedOnFilteredListing() throws Exception {
+        mockMvc.perform(listing("/topics/category/{id}").param("fields", "foo"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Campos inválidos"));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"ids,1", "cursor,''", "q,java"})
+    void listingsWithoutFieldsSupportRejectIt(String parameter, String value) throws Exception {
+        String path = parameter.equals("q") ? "/topics/search" : "/topics";
+        mockMvc.perform(get(path).param(parameter, value).param("fields", "id"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Campos inválidos"));
+    }
+
+    @Test
+    void idsWithCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/topics").param("ids", "1").param("cursor", "x"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Use ids ou cursor, não os dois na mesma requisição"));
+    }
+
+    // Listagens filtradas restritas ao tópico semeado (título e período únicos)
+    private MockHttpServletRequestBuilder listing(String path) {
+        String id = String.valueOf(path.contains("category") ? topic.get("category") : topic.get("course"));
+        MockHttpServletRequestBuilder request = get(path.replace("{id}", id));
+        if (path.equals("/topics/filter")) request.param("title", TITLE);
+        if (path.equals("/topics/date-range")) {
+            request.param("start", CREATED_AT.toString()).param("end", CREATED_AT.toString());
+        }
+        return request;
+    }
+}
@@ -0,0 +1,100 @@
+package com.alura.forum.core.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_000_000);
+
+    @Test
+    void encodeAndDecodeRoundTrip() {
+        Cursor cursor = Cursor.next(CREATED_AT, 42L);
+
+        Cursor decoded = Cursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.isForward()).isTrue();
+    }
+
+    @Test
+    void reverseKeepsKeyAndFlipsDirection() {
+        Cursor prev = Cursor.next(CREATED_AT, 42L).reverse();
+
+        Cursor decoded = Cursor.decode(prev.encode());
+
+        assertThat(decoded.direction()).isEqualTo(Cursor.Direction.PREV);
+        assertThat(decoded.createdAt()).isEqualTo(CREATED_AT);
+        assertThat(decoded.id()).isEqualTo(42L);
+        assertThat(decoded.reverse()).isEqualTo(Cursor.next(CREATED_AT, 42L));
+    }
+
+    @Test
+    void encodedTokenIsUrlSafe() {
+        String token = Cursor.next(CREATED_AT, Long.MAX_VALUE).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void blankTokenMeansFirstPage() {
+        assertThat(Cursor.decode(null)).isNull();
+        assertThat(Cursor.decode("")).isNull();
+        assertThat(Cursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        assertThatThrownBy(() -> Cursor.decode("não-é-base64"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cursor de paginação inválido");
+        assertThatThrownBy(() -> Cursor.decode("Tnx4eHx5"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void firstPageHasOnlyNext() {
+        CursorPage<Long> page = CursorPage.of(List.of(5L, 4L, 3L), null, 2, CursorTest::keyOf);
+
+        assertThat(page.content()).containsExactly(5L, 4L);
+        assertThat(Cursor.decode(page.next())).isEqualTo(keyOf(4L));
+        assertThat(page.prev()).isNull();
+    }
+
+    @Test
+    void lastForwardPageHasOnlyPrev() {
+        CursorPage<Long> page = CursorPage.of(List.of(2L, 1L), keyOf(3L), 2, CursorTest::keyOf);
+
+        assertThat(page.content()).containsExactly(2L, 1L);
+        assertThat(page.next()).isNull();
+        assertThat(Cursor.decode(page.prev())).isEqualTo(keyOf(2L).reverse());
+    }
+
+    @Test
+    void backwardPageIsReturnedInListingOrder() {
+        // Linhas da busca reversa chegam em ordem inversa, com uma a mais indicando página anterior
+        CursorPage<Long> page = CursorPage.of(List.of(6L, 7L, 8L), keyOf(5L).reverse(), 2, CursorTest::keyOf);
+
+        assertThat(page.content()).containsExactly(7L, 6L);
+        assertThat(Cursor.decode(page.next())).isEqualTo(keyOf(6L));
+        assertThat(Cursor.decode(page.prev())).isEqualTo(keyOf(7L).reverse());
+    }
+
+    @Test
+    void emptyPageHasNoCursors() {
+        CursorPage<Long> page = CursorPage.of(List.of(), keyOf(1L), 2, CursorTest::keyOf);
+
+        assertThat(page.content()).isEmpty();
+        assertThat(page.next()).isNull();
+        assertThat(page.prev()).isNull();
+    }
+
+    private static Cursor keyOf(Long id) {
+        return Cursor.next(CREATED_AT.plusSeconds(id), id);
+    }
+}
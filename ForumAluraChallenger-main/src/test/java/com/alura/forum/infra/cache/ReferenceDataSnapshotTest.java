@@ -0,0 +1,119 @@
+package com.alura.forum.infra.cache;
+
+import com.alura.forum.model.entity.Category;
+import com.alura.forum.model.event.ReferenceDataChangedEvent;
+import com.alura.forum.model.projections.CategoryTreeRow;
+import com.alura.forum.repository.CategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataSnapshotTest {
+
+    // Categoria 1 -> subcategorias 10 (cursos 100, 101) e 11 (sem cursos); categoria 2 sem subcategorias
+    private static final List<CategoryTreeRow> TREE = List.of(
+            new CategoryTreeRow(1L, "Programação", 10L, "Java", 100L, "Spring"),
+            new CategoryTreeRow(1L, "Programação", 10L, "Java", 101L, "JPA"),
+            new CategoryTreeRow(1L, "Programação", 11L, "Python", null, null),
+            new CategoryTreeRow(2L, "DevOps", null, null, null, null));
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ReferenceDataSnapshot snapshot;
+
+    @Test
+    void answersExistenceFromTheTree() {
+        when(categoryRepository.findTreeRows()).thenReturn(TREE);
+
+        assertThat(snapshot.categoryExists(1L)).isTrue();
+        assertThat(snapshot.categoryExists(2L)).isTrue();
+        assertThat(snapshot.categoryExists(3L)).isFalse();
+        assertThat(snapshot.subcategoryExists(11L)).isTrue();
+        assertThat(snapshot.subcategoryExists(12L)).isFalse();
+        assertThat(snapshot.courseExists(101L)).isTrue();
+        assertThat(snapshot.courseExists(102L)).isFalse();
+    }
+
+    @Test
+    void resolvesParents() {
+        when(categoryRepository.findTreeRows()).thenReturn(TREE);
+
+        assertThat(snapshot.categoryOfSubcategory(10L)).isEqualTo(1L);
+        assertThat(snapshot.categoryOfSubcategory(11L)).isEqualTo(1L);
+        assertThat(snapshot.subcategoryOfCourse(100L)).isEqualTo(10L);
+        assertThat(snapshot.subcategoryOfCourse(101L)).isEqualTo(10L);
+    }
+
+    @Test
+    void unknownIdHasNoParent() {
+        when(categoryRepository.findTreeRows()).thenReturn(TREE);
+
+        assertThat(snapshot.categoryOfSubcategory(99L)).isEqualTo(ReferenceDataSnapshot.NONE);
+        assertThat(snapshot.subcategoryOfCourse(99L)).isEqualTo(ReferenceDataSnapshot.NONE);
+    }
+
+    @Test
+    void emptyTreeKnowsNothing() {
+        when(categoryRepository.findTreeRows()).thenReturn(List.of());
+
+        assertThat(snapshot.categoryExists(1L)).isFalse();
+        assertThat(snapshot.subcategoryOfCourse(100L)).isEqualTo(ReferenceDataSnapshot.NONE);
+    }
+
+    @Test
+    void treeIsLoadedOnceUntilChanged() {
+        when(categoryRepository.findTreeRows()).thenReturn(TREE);
+
+        snapshot.categoryExists(1L);
+        snapshot.courseExists(100L);
+        snapshot.subcategoryOfCourse(101L);
+
+        verify(categoryRepository, times(1)).findTreeRows();
+    }
+
+    @Test
+    void changeDiscardsTheCopy() {
+        when(categoryRepository.findTreeRows())
+                .thenReturn(TREE)
+                .thenReturn(List.of(new CategoryTreeRow(1L, "Programação", 12L, "Go", 102L, "Concorrência")));
+        assertThat(snapshot.courseExists(102L)).isFalse();
+
+        snapshot.onReferenceDataChanged(new ReferenceDataChangedEvent(Category.class, 1L));
+
+        assertThat(snapshot.courseExists(102L)).isTrue();
+        assertThat(snapshot.subcategoryOfCourse(102L)).isEqualTo(12L);
+        assertThat(snapshot.courseExists(100L)).isFalse();
+    }
+
+    // A cópia montada a partir de uma leitura anterior à mudança serve a consulta corrente, mas não é guardada
+    @Test
+    void changeDuringBuildIsNotLost() {
+        when(categoryRepository.findTreeRows())
+                .thenAnswer(invocation -> {
+                    snapshot.onReferenceDataChanged(new ReferenceDataChangedEvent(Category.class, 2L));
+                    return TREE;
+                })
+                .thenReturn(List.of(new CategoryTreeRow(1L, "Programação", 10L, "Java", 100L, "Spring")));
+
+        assertThat(snapshot.categoryExists(2L)).isTrue();
+
+        assertThat(snapshot.categoryExists(2L)).isFalse();
+        verify(categoryRepository, times(2)).findTreeRows();
+    }
+}
@@ -0,0 +1,103 @@
+package com.alura.forum.infra.cache;
+
+import com.alura.forum.model.entity.Category;
+import com.alura.forum.model.event.ReferenceDataChangedEvent;
+import com.alura.forum.model.event.TopicEvent;
+import com.alura.forum.model.projections.TopicCompleteDTO;
+import com.alura.forum.model.projections.TopicDetail;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TopicDetailCacheTest {
+
+    private final TopicDetailCache cache = new TopicDetailCache(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(10));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void secondReadIsServedFromCache() {
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getIfPresent(1L)).isNotNull();
+    }
+
+    @Test
+    void invalidationOfTheSameTopicDuringLoadDiscardsTheResult() {
+        cache.get(1L, loadingWhile(() -> cache.onTopicEvent(TopicEvent.of(TopicEvent.Type.UPDATED, 1L))));
+
+        assertThat(cache.getIfPresent(1L)).isNull();
+    }
+
+    @Test
+    void invalidationOfAnotherTopicDuringLoadDoesNotBlockCaching() {
+        cache.get(1L, loadingWhile(() -> cache.onTopicEvent(TopicEvent.of(TopicEvent.Type.UPDATED, 2L))));
+
+        assertThat(cache.getIfPresent(1L)).isNotNull();
+    }
+
+    @Test
+    void referenceDataChangeDuringLoadDiscardsTheResult() {
+        cache.get(1L, loadingWhile(() -> cache.onReferenceDataChanged(new ReferenceDataChangedEvent(Category.class, 1L))));
+
+        assertThat(cache.getIfPresent(1L)).isNull();
+    }
+
+    @Test
+    void overlappingLoadsOfTheSameTopicKeepOnlyTheLatest() {
+        TopicDetail outer = cache.get(1L, loadingWhile(() -> cache.get(1L, this::load)));
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.getIfPresent(1L)).isNotNull().isNotSameAs(outer);
+    }
+
+    @Test
+    void failedLoadIsNotCachedAndDoesNotBlockTheNextOne() {
+        assertThatThrownBy(() -> cache.get(1L, id -> {
+            throw new IllegalStateException("falha");
+        })).isInstanceOf(IllegalStateException.class);
+
+        cache.get(1L, this::load);
+
+        assertThat(cache.getIfPresent(1L)).isNotNull();
+    }
+
+    @Test
+    void missingTopicIsNotCached() {
+        assertThat(cache.get(1L, id -> null)).isNull();
+        assertThat(cache.getIfPresent(1L)).isNull();
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        TopicDetailCache disabled = new TopicDetailCache(new SimpleMeterRegistry(), false, 100, Duration.ofMinutes(10));
+
+        disabled.get(1L, this::load);
+        disabled.get(1L, this::load);
+
+        assertThat(loads).hasValue(2);
+        assertThat(disabled.getIfPresent(1L)).isNull();
+    }
+
+    private TopicDetail load(Long id) {
+        loads.incrementAndGet();
+        return new TopicDetail(new TopicCompleteDTO(id, "título", "mensagem", null, 1, "SEM RESPOSTAS", 0, null,
+                null, null, null, null, null), "\"" + id + "\"");
+    }
+
+    // Carga que dispara o evento enquanto a consulta ainda "está no banco"
+    private Function<Long, TopicDetail> loadingWhile(Runnable concurrentEvent) {
+        return id -> {
+            TopicDetail loaded = load(id);
+            concurrentEvent.run();
+            return loaded;
+        };
+    }
+}
@@ -0,0 +1,123 @@
+package com.alura.forum.infra.cache;
+
+import com.alura.forum.core.crud.VersionStamp;
+import com.alura.forum.model.entity.Category;
+import com.alura.forum.model.event.ReferenceDataChangedEvent;
+import com.alura.forum.model.event.TopicEvent;
+import com.alura.forum.repository.CategoryRepository;
+import com.alura.forum.repository.CourseRepository;
+import com.alura.forum.repository.Subcat;
+import com.alura.forum.repository.TopicRepository;
+import com.alura.forum.service.TopicCountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TopicListingVersionTest {
+
+    private static final LocalDateTime VERSION = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+
+    @Mock
+    private TopicRepository topicRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private Subcat subcategoryRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private TopicCountService topicCountService;
+
+    @InjectMocks
+    private TopicListingVersion listingVersion;
+
+    @BeforeEach
+    void stubVersions() {
+        when(topicRepository.findMaxVersion()).thenReturn(VERSION);
+        when(categoryRepository.findVersionStamp()).thenReturn(new VersionStamp(7L, VERSION));
+        when(subcategoryRepository.findVersionStamp()).thenReturn(new VersionStamp(17L, VERSION));
+        when(courseRepository.findVersionStamp()).thenReturn(new VersionStamp(47L, VERSION));
+        when(topicCountService.total()).thenReturn(10L);
+    }
+
+    @Test
+    void versionsAreReadOnceForRepeatedTags() {
+        assertThat(listingVersion.tag()).isEqualTo(listingVersion.tag()).startsWith("W/\"");
+
+        verify(topicRepository, times(1)).findMaxVersion();
+    }
+
+    // O recálculo periódico sem escritas no intervalo não invalida o cache dos clientes
+    @Test
+    void periodicRefreshWithoutChangesKeepsTag() {
+        String before = listingVersion.tag();
+
+        listingVersion.refresh();
+
+        assertThat(listingVersion.tag()).isEqualTo(before);
+    }
+
+    @Test
+    void topicEventWithNewVersionChangesTag() {
+        String before = listingVersion.tag();
+
+        when(topicRepository.findMaxVersion()).thenReturn(VERSION.plusNanos(1_000));
+        listingVersion.onTopicEvent(TopicEvent.of(TopicEvent.Type.UPDATED, 1L));
+
+        assertThat(listingVersion.tag()).isNotEqualTo(before);
+    }
+
+    @Test
+    void topicEventDoesNotReadReferenceData() {
+        listingVersion.tag();
+
+        listingVersion.onTopicEvent(TopicEvent.of(TopicEvent.Type.CREATED, 1L));
+
+        verify(topicRepository, times(2)).findMaxVersion();
+        verify(categoryRepository, times(1)).findVersionStamp();
+    }
+
+    @Test
+    void deletionChangesTagThroughTheTotal() {
+        String before = listingVersion.tag();
+
+        when(topicCountService.total()).thenReturn(9L);
+        listingVersion.onTopicEvent(TopicEvent.of(TopicEvent.Type.DELETED, 1L));
+
+        assertThat(listingVersion.tag()).isNotEqualTo(before);
+    }
+
+    @Test
+    void referenceDataChangeChangesTag() {
+        String before = listingVersion.tag();
+
+        when(categoryRepository.findVersionStamp()).thenReturn(new VersionStamp(7L, VERSION.plusSeconds(1)));
+        listingVersion.onReferenceDataChanged(new ReferenceDataChangedEvent(Category.class, 1L));
+
+        assertThat(listingVersion.tag()).isNotEqualTo(before);
+    }
+
+    // Outra instância (ou a mesma depois de reiniciar) sobre os mesmos dados responde 304 ao mesmo If-None-Match
+    @Test
+    void instancesOverTheSameDataShareTheTag() {
+        TopicListingVersion other = new TopicListingVersion(topicRepository, categoryRepository,
+                subcategoryRepository, courseRepository, topicCountService);
+
+        assertThat(other.tag()).isEqualTo(listingVersion.tag());
+    }
+}
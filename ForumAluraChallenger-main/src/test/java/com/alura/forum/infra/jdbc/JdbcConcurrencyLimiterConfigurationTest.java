@@ -0,0 +1,29 @@
+package com.alura.forum.infra.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcConcurrencyLimiterConfigurationTest {
+
+    @Test
+    void defaultLeavesTheReservedConnectionsOut() {
+        assertThat(JdbcConcurrencyLimiterConfiguration.permits(10, 0, 1)).isEqualTo(9);
+    }
+
+    @Test
+    void maxConcurrencyBelowThePoolIsKept() {
+        assertThat(JdbcConcurrencyLimiterConfiguration.permits(10, 4, 1)).isEqualTo(4);
+    }
+
+    // Acima do pool menos a reserva, as aquisições aninhadas voltariam a disputar a última conexão
+    @Test
+    void maxConcurrencyCannotTakeTheReserve() {
+        assertThat(JdbcConcurrencyLimiterConfiguration.permits(10, 10, 1)).isEqualTo(9);
+    }
+
+    @Test
+    void atLeastOnePermit() {
+        assertThat(JdbcConcurrencyLimiterConfiguration.permits(1, 0, 1)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,165 @@
+package com.alura.forum.infra.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LimitedDataSourceTest {
+
+    private static final int PERMITS = 2;
+
+    @Mock
+    private DataSource target;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LimitedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        limit(PERMITS, Duration.ofMillis(200));
+    }
+
+    @Test
+    void closeReturnsThePermit() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        assertThat(available()).isEqualTo(PERMITS - 1);
+
+        connection.close();
+
+        assertThat(available()).isEqualTo(PERMITS);
+    }
+
+    @Test
+    void closeIsDelegatedAndReleasesOnlyOnce() throws SQLException {
+        Connection connection = dataSource.getConnection();
+
+        connection.close();
+        connection.close();
+
+        assertThat(available()).isEqualTo(PERMITS);
+    }
+
+    @Test
+    void failedAcquisitionReturnsThePermit() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool indisponível"));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool indisponível");
+
+        assertThat(available()).isEqualTo(PERMITS);
+    }
+
+    @Test
+    void permitIsReturnedEvenWhenCloseFails() throws SQLException {
+        Connection raw = mock(Connection.class);
+        when(target.getConnection()).thenReturn(raw);
+        doThrow(new SQLException("falha no close")).when(raw).close();
+        Connection connection = dataSource.getConnection();
+
+        assertThatThrownBy(connection::close).hasMessage("falha no close");
+
+        verify(raw).close();
+        assertThat(available()).isEqualTo(PERMITS);
+    }
+
+    @Test
+    void exhaustedPermitsTimeOut() throws Exception {
+        Connection first = connectAsync().join();
+        Connection second = connectAsync().join();
+        assertThat(available()).isZero();
+
+        assertThatThrownBy(() -> connectAsync().join()).hasCauseInstanceOf(SQLTransientConnectionException.class);
+
+        first.close();
+        second.close();
+        assertThat(available()).isEqualTo(PERMITS);
+    }
+
+    @Test
+    void waitingThreadProceedsWhenPermitIsReturned() throws Exception {
+        limit(1, Duration.ofSeconds(5));
+        Connection held = dataSource.getConnection();
+
+        CompletableFuture<Connection> waiting = connectAsync();
+        Thread.sleep(50);
+        assertThat(waiting).isNotDone();
+
+        held.close();
+
+        waiting.get(5, TimeUnit.SECONDS).close();
+        assertThat(available()).isEqualTo(1);
+    }
+
+    // Bloco de ids das tabelas *_seq pedido com a conexão da transação aberta: não espera permissão
+    @Test
+    void nestedAcquisitionBypassesTheSemaphore() throws SQLException {
+        limit(1, Duration.ofMillis(200));
+        Connection outer = dataSource.getConnection();
+
+        Connection nested = dataSource.getConnection();
+        assertThat(available()).isZero();
+        nested.close();
+
+        // A conexão aninhada não devolve a permissão que não tomou
+        assertThat(available()).isZero();
+        outer.close();
+        assertThat(available()).isEqualTo(1);
+    }
+
+    @Test
+    void acquisitionAfterNestedOnesIsLimitedAgain() throws Exception {
+        limit(1, Duration.ofMillis(200));
+        Connection outer = dataSource.getConnection();
+        dataSource.getConnection().close();
+        outer.close();
+
+        // Sem conexões abertas, a thread volta a passar pelo semáforo
+        Connection again = dataSource.getConnection();
+        assertThat(available()).isZero();
+        assertThatThrownBy(() -> connectAsync().join())
+                .hasCauseInstanceOf(SQLTransientConnectionException.class);
+        again.close();
+        assertThat(available()).isEqualTo(1);
+    }
+
+    // Registro novo a cada DataSource: os gauges de mesmo nome ficariam presos ao primeiro semáforo
+    private void limit(int permits, Duration timeout) {
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new LimitedDataSource(target, permits, timeout, meterRegistry);
+    }
+
+    // Cada aquisição em uma thread nova: uma thread reaproveitada que já tivesse conexão aberta seria aninhada
+    private CompletableFuture<Connection> connectAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException ex) {
+                throw new CompletionException(ex);
+            }
+        }, runnable -> Thread.ofVirtual().start(runnable));
+    }
+
+    private int available() {
+        return (int) meterRegistry.get("jdbc.limiter.available").gauge().value();
+    }
+}
@@ -0,0 +1,64 @@
+package com.alura.forum.infra.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PortugueseAnalyzerTest {
+
+    @Test
+    void foldsCaseAndAccents() {
+        assertThat(PortugueseAnalyzer.analyze("Olá MÉTODO Índice")).containsExactly("ola", "metodo", "indice");
+    }
+
+    @Test
+    void dropsStopwordsAndSingleCharacters() {
+        assertThat(PortugueseAnalyzer.analyze("Erro de conexão com o banco e x")).containsExactly("erro", "conexao", "banco");
+    }
+
+    @Test
+    void splitsOnPunctuationAndKeepsDigits() {
+        assertThat(PortugueseAnalyzer.analyze("spring-boot 3.2, java21!")).containsExactly("spring", "boot", "java21");
+    }
+
+    @Test
+    void singularAndPluralShareTheSameStem() {
+        assertThat(PortugueseAnalyzer.analyze("solução soluções")).containsExactly("soluc", "soluc");
+        assertThat(PortugueseAnalyzer.analyze("erro erros")).containsExactly("erro", "erro");
+        assertThat(PortugueseAnalyzer.analyze("papel papéis")).containsExactly("papel", "papel");
+        assertThat(PortugueseAnalyzer.analyze("jornal jornais")).containsExactly("jornal", "jornal");
+        assertThat(PortugueseAnalyzer.analyze("mensagem mensagens")).containsExactly("mensagem", "mensagem");
+    }
+
+    @Test
+    void singularEndingInEShareTheStemOfPluralsInEs() {
+        assertThat(PortugueseAnalyzer.analyze("classe classes")).containsExactly("class", "class");
+        assertThat(PortugueseAnalyzer.analyze("base bases")).containsExactly("bas", "bas");
+        assertThat(PortugueseAnalyzer.analyze("análise análises")).containsExactly("analis", "analis");
+        assertThat(PortugueseAnalyzer.analyze("nobre nobres")).containsExactly("nobr", "nobr");
+        assertThat(PortugueseAnalyzer.analyze("deslize deslizes")).containsExactly("desliz", "desliz");
+        assertThat(PortugueseAnalyzer.analyze("mês meses")).containsExactly("mes", "mes");
+    }
+
+    @Test
+    void stripsCommonSuffixes() {
+        assertThat(PortugueseAnalyzer.stem("rapidamente")).isEqualTo("rapida");
+        assertThat(PortugueseAnalyzer.stem("configuracao")).isEqualTo("configurac");
+        assertThat(PortugueseAnalyzer.stem("velocidade")).isEqualTo("veloci");
+    }
+
+    @Test
+    void shortTermsAndIrregularEndingsAreKept() {
+        assertThat(PortugueseAnalyzer.stem("api")).isEqualTo("api");
+        assertThat(PortugueseAnalyzer.stem("classe")).isEqualTo("class");
+        assertThat(PortugueseAnalyzer.stem("status")).isEqualTo("status");
+        assertThat(PortugueseAnalyzer.stem("acess")).isEqualTo("acess");
+    }
+
+    @Test
+    void blankTextHasNoTerms() {
+        assertThat(PortugueseAnalyzer.analyze(null)).isEmpty();
+        assertThat(PortugueseAnalyzer.analyze("   ")).isEmpty();
+        assertThat(PortugueseAnalyzer.analyze("de o a")).isEmpty();
+    }
+}
@@ -0,0 +1,156 @@
+package com.alura.forum.infra.search;
+
+import com.alura.forum.model.event.TopicEvent;
+import com.alura.forum.model.projections.AnswerSearchDocument;
+import com.alura.forum.model.projections.TopicSearchDocument;
+import com.alura.forum.repository.AnswerRepository;
+import com.alura.forum.repository.TopicRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TopicSearchIndexTest {
+
+    @Mock
+    private TopicRepository topicRepository;
+
+    @Mock
+    private AnswerRepository answerRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TopicSearchIndex index;
+
+    @Test
+    void rebuildIndexesTopicsAndAnswers() {
+        when(topicRepository.streamSearchDocumentsBy()).thenReturn(Stream.of(
+                new TopicSearchDocument(1L, "Erro no Flyway", "migração falha"),
+                new TopicSearchDocument(2L, "Dúvida de JPA", "lazy loading")));
+        when(answerRepository.streamSearchDocuments()).thenReturn(Stream.of(
+                new AnswerSearchDocument(2L, "use um entity graph")));
+
+        assertThat(index.isReady()).isFalse();
+        index.rebuild();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search("flyway", SearchOperator.AND)).containsExactly(1L);
+        assertThat(index.search("graph", SearchOperator.AND)).containsExactly(2L);
+    }
+
+    @Test
+    void matchesPluralsAndAccentsOfIndexedTerms() {
+        index.indexTopic(1L, "Soluções para configuração", "");
+
+        assertThat(index.search("solucao configuracoes", SearchOperator.AND)).containsExactly(1L);
+    }
+
+    @Test
+    void andRequiresEveryTermAndOrAcceptsAny() {
+        index.indexTopic(1L, "spring security", "");
+        index.indexTopic(2L, "spring data", "");
+        index.indexTopic(3L, "hibernate", "");
+
+        assertThat(index.search("spring security", SearchOperator.AND)).containsExactly(1L);
+        assertThat(index.search("security hibernate", SearchOperator.OR)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search("security OR hibernate", SearchOperator.AND)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search("kafka", SearchOperator.OR)).isEmpty();
+        assertThat(index.search("de o", SearchOperator.OR)).isEmpty();
+    }
+
+    @Test
+    void orSeparatorIsNotSearchedAsATerm() {
+        index.indexTopic(1L, "operador or do sql", "");
+        index.indexTopic(2L, "hibernate", "");
+
+        assertThat(index.search("kafka OR hibernate", SearchOperator.AND)).containsExactly(2L);
+    }
+
+    @Test
+    void titleWeighsMoreThanMessageAndAnswers() {
+        index.indexTopic(1L, "outro assunto", "kafka");
+        index.indexTopic(2L, "kafka", "outro assunto");
+        index.indexTopic(3L, "outro assunto", "");
+        index.addAnswer(3L, "kafka");
+
+        assertThat(index.search("kafka", SearchOperator.AND)).containsExactly(2L, 1L, 3L);
+    }
+
+    @Test
+    void tiesAreOrderedByNewestTopic() {
+        index.indexTopic(1L, "kafka", "");
+        index.indexTopic(2L, "kafka", "");
+
+        assertThat(index.search("kafka", SearchOperator.AND)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void reindexingReplacesOldTermsButKeepsAnswers() {
+        index.indexTopic(1L, "kafka", "");
+        index.addAnswer(1L, "consumer group");
+
+        index.indexTopic(1L, "rabbitmq", "");
+
+        assertThat(index.search("kafka", SearchOperator.AND)).isEmpty();
+        assertThat(index.search("rabbitmq", SearchOperator.AND)).containsExactly(1L);
+        assertThat(index.search("consumer", SearchOperator.AND)).containsExactly(1L);
+    }
+
+    @Test
+    void updateReplacesTheAnswersWithTheCurrentOnes() {
+        when(topicRepository.findSearchDocumentById(1L)).thenReturn(Optional.of(new TopicSearchDocument(1L, "kafka", "")));
+        index.indexTopic(1L, "kafka", "");
+        index.addAnswer(1L, "consumer group");
+        index.addAnswer(1L, "offset");
+
+        // Uma resposta editada e a outra excluída
+        when(answerRepository.findMessagesByTopicId(1L)).thenReturn(List.of("producer"));
+        index.onTopicEvent(TopicEvent.of(TopicEvent.Type.UPDATED, 1L));
+
+        assertThat(index.search("consumer", SearchOperator.OR)).isEmpty();
+        assertThat(index.search("offset", SearchOperator.OR)).isEmpty();
+        assertThat(index.search("kafka producer", SearchOperator.AND)).containsExactly(1L);
+
+        when(answerRepository.findMessagesByTopicId(1L)).thenReturn(List.of());
+        index.onTopicEvent(TopicEvent.of(TopicEvent.Type.UPDATED, 1L));
+
+        assertThat(index.search("producer", SearchOperator.OR)).isEmpty();
+        assertThat(index.search("kafka", SearchOperator.OR)).containsExactly(1L);
+    }
+
+    @Test
+    void removedTopicIsNoLongerFound() {
+        index.indexTopic(1L, "kafka", "");
+        index.indexTopic(2L, "kafka", "");
+
+        index.remove(1L);
+        index.remove(99L);
+
+        assertThat(index.search("kafka", SearchOperator.AND)).containsExactly(2L);
+    }
+
+    @Test
+    void eventsUpdateTheIndex() {
+        when(topicRepository.findSearchDocumentById(1L)).thenReturn(Optional.of(new TopicSearchDocument(1L, "kafka", "")));
+        when(answerRepository.findMessageById(10L)).thenReturn(Optional.of("use o consumer group"));
+
+        index.onTopicEvent(TopicEvent.of(TopicEvent.Type.CREATED, 1L));
+        index.onTopicEvent(new TopicEvent(TopicEvent.Type.ANSWERED, 1L, 10L));
+        assertThat(index.search("kafka consumer", SearchOperator.AND)).containsExactly(1L);
+
+        index.onTopicEvent(TopicEvent.of(TopicEvent.Type.DELETED, 1L));
+        assertThat(index.search("kafka", SearchOperator.OR)).isEmpty();
+    }
+}
@@ -0,0 +1,91 @@
+package com.alura.forum.infra.security;
+
+import com.alura.forum.model.entity.User;
+import com.alura.forum.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalCacheTest {
+
+    private static final String LOGIN = "user@forum.com";
+
+    @Mock
+    private UserRepository userRepository;
+
+    private PrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new PrincipalCache(userRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+        lenient().when(userRepository.findByLogin(LOGIN)).thenReturn(new User());
+    }
+
+    @Test
+    void sameTokenIsServedFromTheCache() {
+        TokenSubject subject = new TokenSubject(LOGIN, Instant.now().plus(Duration.ofDays(7)));
+
+        principalCache.find(subject);
+        principalCache.find(subject);
+
+        verify(userRepository, times(1)).findByLogin(LOGIN);
+    }
+
+    // Outro token do mesmo login (novo login na API) tem a própria entrada
+    @Test
+    void tokensWithDifferentExpiryAreDistinctEntries() {
+        Instant expiry = Instant.now().plus(Duration.ofDays(7));
+
+        principalCache.find(new TokenSubject(LOGIN, expiry));
+        principalCache.find(new TokenSubject(LOGIN, expiry.plusSeconds(1)));
+
+        verify(userRepository, times(2)).findByLogin(LOGIN);
+    }
+
+    @Test
+    void entryDoesNotOutliveTheToken() {
+        TokenSubject expired = new TokenSubject(LOGIN, Instant.now().minusSeconds(1));
+
+        principalCache.find(expired);
+        principalCache.find(expired);
+
+        verify(userRepository, times(2)).findByLogin(LOGIN);
+    }
+
+    @Test
+    void invalidateRemovesEveryTokenOfTheLogin() {
+        Instant expiry = Instant.now().plus(Duration.ofDays(7));
+        TokenSubject first = new TokenSubject(LOGIN, expiry);
+        TokenSubject second = new TokenSubject(LOGIN, expiry.plusSeconds(1));
+        principalCache.find(first);
+        principalCache.find(second);
+
+        principalCache.invalidate(LOGIN);
+        principalCache.find(first);
+        principalCache.find(second);
+
+        verify(userRepository, times(4)).findByLogin(LOGIN);
+    }
+
+    @Test
+    void unknownLoginIsNotCached() {
+        TokenSubject subject = new TokenSubject("ghost@forum.com", Instant.now().plus(Duration.ofDays(7)));
+
+        assertThat(principalCache.find(subject)).isNull();
+        assertThat(principalCache.find(subject)).isNull();
+
+        verify(userRepository, times(2)).findByLogin("ghost@forum.com");
+    }
+}
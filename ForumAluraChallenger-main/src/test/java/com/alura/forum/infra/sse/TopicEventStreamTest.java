@@ -0,0 +1,181 @@
+package com.alura.forum.infra.sse;
+
+import com.alura.forum.model.event.TopicEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Buffer circular de replay e retomada por Last-Event-ID, lendo o corpo SSE escrito pelo emitter.
+ */
+class TopicEventStreamTest {
+
+    private static final int REPLAY_SIZE = 4;
+    private static final Pattern EVENT_ID = Pattern.compile("id:([0-9a-z]+)-(\\d+)");
+
+    private TopicEventStream stream;
+    private MockMvc mockMvc;
+
+    @RestController
+    static class EventsController {
+
+        private final TopicEventStream stream;
+
+        EventsController(TopicEventStream stream) {
+            this.stream = stream;
+        }
+
+        @GetMapping("/events")
+        SseEmitter events(@RequestParam(required = false) Long topicId,
+                          @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+            return stream.subscribe(topicId, lastEventId);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        stream = new TopicEventStream(new SimpleMeterRegistry(), 16, REPLAY_SIZE, Duration.ofSeconds(10));
+        mockMvc = MockMvcBuilders.standaloneSetup(new EventsController(stream)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.destroy();
+    }
+
+    @Test
+    void idsCarryEpochAndSequence() throws Exception {
+        MvcResult live = subscribe(get("/events"));
+
+        publish(1L, 2L);
+
+        List<String> ids = awaitIds(live, 2);
+        String epoch = epochOf(ids.get(0));
+        assertThat(ids).containsExactly(epoch + "-1", epoch + "-2");
+    }
+
+    @Test
+    void resumeReplaysOnlyNewerEvents() throws Exception {
+        MvcResult live = subscribe(get("/events"));
+        publish(1L, 1L, 1L);
+        List<String> ids = awaitIds(live, 3);
+
+        MvcResult resumed = subscribe(get("/events").header("Last-Event-ID", ids.get(0)));
+
+        assertThat(awaitIds(resumed, 2)).containsExactly(ids.get(1), ids.get(2));
+        assertThat(body(resumed)).doesNotContain("event:reset");
+    }
+
+    @Test
+    void resumeFromLatestIdReplaysNothing() throws Exception {
+        MvcResult live = subscribe(get("/events"));
+        publish(1L, 1L);
+        List<String> ids = awaitIds(live, 2);
+
+        MvcResult resumed = subscribe(get("/events").header("Last-Event-ID", ids.get(1)));
+        publish(1L);
+
+        assertThat(awaitIds(resumed, 1)).containsExactly(epochOf(ids.get(0)) + "-3");
+        assertThat(body(resumed)).doesNotContain("event:reset");
+    }
+
+    // Mais eventos que o buffer: reset e depois só o que ainda está guardado
+    @Test
+    void idOlderThanRingGetsResetAndBufferedEvents() throws Exception {
+        MvcResult live = subscribe(get("/events"));
+        publish(1L, 1L, 1L, 1L, 1L, 1L);
+        List<String> ids = awaitIds(live, 6);
+
+        MvcResult resumed = subscribe(get("/events").header("Last-Event-ID", ids.get(0)));
+
+        assertThat(awaitIds(resumed, REPLAY_SIZE)).containsExactlyElementsOf(ids.subList(2, 6));
+        assertThat(body(resumed).indexOf("event:reset")).isNotNegative().isLessThan(body(resumed).indexOf("id:"));
+    }
+
+    // Id de um processo anterior: a sequência recomeçou, então só reset (nada do buffer atual é replay)
+    @Test
+    void idFromAnotherEpochGetsResetOnly() throws Exception {
+        MvcResult live = subscribe(get("/events"));
+        publish(1L);
+        String epoch = epochOf(awaitIds(live, 1).get(0));
+
+        MvcResult resumed = subscribe(get("/events").header("Last-Event-ID", "0-1"));
+        publish(1L);
+
+        assertThat(awaitIds(resumed, 1)).containsExactly(epoch + "-2");
+        assertThat(body(resumed)).startsWith("event:reset");
+    }
+
+    @Test
+    void malformedIdGetsReset() throws Exception {
+        MvcResult resumed = subscribe(get("/events").header("Last-Event-ID", "abc"));
+        publish(1L);
+
+        awaitIds(resumed, 1);
+        assertThat(body(resumed)).startsWith("event:reset");
+    }
+
+    @Test
+    void replayIsFilteredByTopic() throws Exception {
+        MvcResult live = subscribe(get("/events"));
+        publish(1L, 2L, 1L, 2L);
+        List<String> ids = awaitIds(live, 4);
+
+        MvcResult resumed = subscribe(get("/events").param("topicId", "2")
+                .header("Last-Event-ID", epochOf(ids.get(0)) + "-0"));
+
+        assertThat(awaitIds(resumed, 2)).containsExactly(ids.get(1), ids.get(3));
+    }
+
+    private MvcResult subscribe(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private void publish(Long... topicIds) {
+        for (Long topicId : topicIds) stream.onTopicEvent(TopicEvent.of(TopicEvent.Type.UPDATED, topicId));
+    }
+
+    // Os envios correm em threads virtuais: espera até o corpo ter a quantidade de eventos esperada
+    private static List<String> awaitIds(MvcResult result, int count) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        List<String> ids = ids(body(result));
+        while (ids.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            ids = ids(body(result));
+        }
+        assertThat(ids).as(body(result)).hasSize(count);
+        return ids;
+    }
+
+    private static List<String> ids(String body) {
+        Matcher matcher = EVENT_ID.matcher(body);
+        return matcher.results().map(m -> m.group(1) + "-" + m.group(2)).toList();
+    }
+
+    private static String epochOf(String id) {
+        return id.substring(0, id.lastIndexOf('-'));
+    }
+
+    private static String body(MvcResult result) throws Exception {
+        return result.getResponse().getContentAsString();
+    }
+}
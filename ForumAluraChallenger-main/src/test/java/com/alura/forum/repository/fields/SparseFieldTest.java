@@ -0,0 +1,55 @@
+package com.alura.forum.repository.fields;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SparseFieldTest {
+
+    @Test
+    void parseKeepsRequestedOrder() {
+        assertThat(SparseField.parse("title,id,author", TopicField.class))
+                .containsExactly(TopicField.TITLE, TopicField.ID, TopicField.AUTHOR);
+    }
+
+    @Test
+    void parseTrimsAndSkipsEmptyNames() {
+        assertThat(SparseField.parse(" id , ,title,", TopicField.class))
+                .containsExactly(TopicField.ID, TopicField.TITLE);
+    }
+
+    @Test
+    void parseDropsRepeatedNames() {
+        assertThat(SparseField.parse("id,title,id", TopicField.class))
+                .containsExactly(TopicField.ID, TopicField.TITLE);
+    }
+
+    @Test
+    void fieldsOverTheSameColumnAreBothAccepted() {
+        assertThat(SparseField.parse("status,statusName", TopicField.class))
+                .containsExactly(TopicField.STATUS, TopicField.STATUS_NAME);
+    }
+
+    @Test
+    void namesAreCaseSensitive() {
+        assertThatThrownBy(() -> SparseField.parse("Title", TopicField.class))
+                .isInstanceOf(InvalidFieldsException.class)
+                .hasMessageStartingWith("Campos desconhecidos: Title.");
+    }
+
+    @Test
+    void unknownNamesAreListedWithTheAllowedOnes() {
+        assertThatThrownBy(() -> SparseField.parse("id,foo,bar", TopicField.class))
+                .isInstanceOf(InvalidFieldsException.class)
+                .hasMessageStartingWith("Campos desconhecidos: foo, bar.")
+                .hasMessageContaining("Permitidos: id, title, message");
+    }
+
+    @Test
+    void blankListIsRejected() {
+        assertThatThrownBy(() -> SparseField.parse(" , ", AnswerField.class))
+                .isInstanceOf(InvalidFieldsException.class)
+                .hasMessage("Informe ao menos um campo. Permitidos: id, message, createdAt, author");
+    }
+}
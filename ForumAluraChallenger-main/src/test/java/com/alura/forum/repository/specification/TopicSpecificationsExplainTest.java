@@ -0,0 +1,133 @@
+package com.alura.forum.repository.specification;
+
+import com.alura.forum.MySqlIntegrationTest;
+import com.alura.forum.SqlRecorder;
+import com.alura.forum.model.dto.request.TopicFilterDTO;
+import com.alura.forum.model.entity.enums.TopicStatus;
+import com.alura.forum.service.TopicService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EXPLAIN do SQL gerado por {@link TopicSpecifications} para cada combinação de filtros indexáveis
+ * (categoria, curso, status, período), com e sem título. Título sozinho não entra: LIKE '%texto%' não
+ * usa índice B-tree (a busca textual fica com o /topics/search).
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TopicSpecificationsExplainTest extends MySqlIntegrationTest {
+
+    private static final int ROWS = 20_000;
+    private static final String TITLE_PREFIX = "explain-";
+    private static final LocalDateTime FIRST_CREATED_AT = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final Pattern TOPIC_ALIAS = Pattern.compile("from\\s+topic\\s+(\\w+)");
+
+    @Autowired
+    private TopicService topicService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Long> categoryIds;
+    private List<Long> courseIds;
+
+    // Uma linha por hora ao longo de ~2 anos, distribuída entre categorias, cursos e status
+    @BeforeAll
+    void seed() {
+        categoryIds = jdbcTemplate.queryForList("SELECT id FROM category ORDER BY id", Long.class);
+        courseIds = jdbcTemplate.queryForList("SELECT id FROM course ORDER BY id", Long.class);
+        Long authorId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM user", Long.class);
+        long firstId = reserveIds(jdbcTemplate, "topic", ROWS);
+        List<Object[]> rows = IntStream.range(0, ROWS)
+                .mapToObj(i -> new Object[]{firstId + i, TITLE_PREFIX + i, "mensagem", Timestamp.valueOf(FIRST_CREATED_AT.plusHours(i)),
+                        String.valueOf(1 + i % 4), categoryIds.get(i % categoryIds.size()),
+                        courseIds.get(i % courseIds.size()), authorId})
+                .toList();
+        jdbcTemplate.batchUpdate("INSERT INTO topic (id, title, message, created_at, status, fk_category, fk_course, fk_user) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE TABLE topic");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM topic WHERE title LIKE ?", TITLE_PREFIX + "%");
+    }
+
+    static Stream<String> combinations() {
+        List<String> combinations = new ArrayList<>();
+        String[] filters = {"category", "course", "status", "period"};
+        for (int mask = 1; mask < 1 << filters.length; mask++) {
+            List<String> selected = new ArrayList<>();
+            for (int i = 0; i < filters.length; i++) if ((mask & 1 << i) != 0) selected.add(filters[i]);
+            combinations.add(String.join("+", selected));
+            combinations.add(String.join("+", selected) + "+title");
+        }
+        return combinations.stream();
+    }
+
+    @ParameterizedTest
+    @MethodSource("combinations")
+    void filterDoesNotScanTopicTable(String combination) {
+        TopicFilterDTO filter = filterFor(combination);
+        SqlRecorder.start();
+        topicService.findByFilters(filter, PageRequest.of(0, 20));
+        String sql = SqlRecorder.stop().stream()
+                .filter(statement -> statement.contains(" limit "))
+                .findFirst().orElseThrow();
+
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, parametersOf(filter, sql));
+
+        Matcher alias = TOPIC_ALIAS.matcher(sql);
+        assertThat(alias.find()).isTrue();
+        Map<String, Object> topicRow = plan.stream()
+                .filter(row -> alias.group(1).equals(row.get("table")))
+                .findFirst().orElseThrow();
+        // "index" também percorre a tabela inteira, só que pela ordem de um índice
+        assertThat(topicRow.get("type")).as("plano de %s: %s", combination, plan).isIn("ref", "range", "eq_ref", "const");
+        assertThat(topicRow.get("key")).as("plano de %s: %s", combination, plan).isNotNull();
+    }
+
+    private TopicFilterDTO filterFor(String combination) {
+        TopicFilterDTO filter = new TopicFilterDTO();
+        if (combination.contains("category")) filter.setCategoryId(categoryIds.get(2));
+        if (combination.contains("course")) filter.setCourseId(courseIds.get(4));
+        if (combination.contains("status")) filter.setStatus(TopicStatus.SOLUCIONADO);
+        if (combination.contains("period")) {
+            filter.setStartDate(FIRST_CREATED_AT.plusMonths(5));
+            filter.setEndDate(FIRST_CREATED_AT.plusMonths(5).plusWeeks(1));
+        }
+        if (combination.contains("title")) filter.setTitle(TITLE_PREFIX + "1");
+        return filter;
+    }
+
+    // Mesma ordem dos predicados em TopicSpecifications.of, seguida do LIMIT (com ou sem offset)
+    private static Object[] parametersOf(TopicFilterDTO filter, String sql) {
+        List<Object> parameters = new ArrayList<>();
+        if (filter.getCategoryId() != null) parameters.add(filter.getCategoryId());
+        if (filter.getCourseId() != null) parameters.add(filter.getCourseId());
+        if (filter.getStatus() != null) parameters.add(filter.getStatus().getId());
+        if (filter.getStartDate() != null) parameters.add(Timestamp.valueOf(filter.getStartDate()));
+        if (filter.getEndDate() != null) parameters.add(Timestamp.valueOf(filter.getEndDate()));
+        if (filter.getTitle() != null) parameters.add("%" + filter.getTitle() + "%");
+        if (sql.endsWith("limit ?,?")) parameters.add(0);
+        parameters.add(20);
+        return parameters.toArray();
+    }
+}
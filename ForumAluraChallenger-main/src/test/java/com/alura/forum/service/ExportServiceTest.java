@@ -0,0 +1,83 @@
+package com.alura.forum.service;
+
+import com.alura.forum.model.projections.TopicExportRow;
+import com.alura.forum.model.projections.TopicSlimDTO;
+import com.alura.forum.repository.TopicRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+
+    @Mock
+    private TopicRepository topicRepository;
+
+    @InjectMocks
+    private ExportService exportService;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"=1+1", "+1", "-1", "@SUM(A1)", "\tx", "\rx"})
+    void formulaLikeTextIsPrefixed(String title) throws IOException {
+        // Com CR o campo também vai entre aspas: o ' fica logo depois da aspa de abertura
+        assertThat(csvFields(topic(title, "Autor"))[1]).matches("\"?'[^']+");
+    }
+
+    @Test
+    void formulaWithCommaIsPrefixedInsideTheQuotes() throws IOException {
+        assertThat(csvLine(topic("=HYPERLINK(\"x\",\"y\")", "Autor")))
+                .contains(",\"'=HYPERLINK(\"\"x\"\",\"\"y\"\")\",");
+    }
+
+    @Test
+    void plainTextAndNumbersAreUnchanged() throws IOException {
+        String[] fields = csvFields(topic("Dúvida sobre Java", "Autor"));
+
+        assertThat(fields[0]).isEqualTo("1");
+        assertThat(fields[1]).isEqualTo("Dúvida sobre Java");
+    }
+
+    @Test
+    void answerMessagesAreNeutralizedToo() throws IOException {
+        when(topicRepository.streamExportWithAnswers()).thenReturn(Stream.of(new TopicExportRow(1L, "Título", CREATED_AT, 1,
+                1, CREATED_AT, 1L, "Categoria", null, null, null, null, 2L, "Autor",
+                3L, "-resposta", CREATED_AT, 2L, "@autor")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportTopics(out, ExportService.Format.CSV, true);
+
+        String line = out.toString(StandardCharsets.UTF_8).split("\n")[1];
+        assertThat(line).contains(",'-resposta,").endsWith(",'@autor");
+    }
+
+    private String[] csvFields(TopicSlimDTO topic) throws IOException {
+        return csvLine(topic).split(",", -1);
+    }
+
+    private String csvLine(TopicSlimDTO topic) throws IOException {
+        when(topicRepository.streamExport()).thenReturn(Stream.of(topic));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportTopics(out, ExportService.Format.CSV, false);
+        return out.toString(StandardCharsets.UTF_8).split("\n")[1];
+    }
+
+    private static TopicSlimDTO topic(String title, String author) {
+        return new TopicSlimDTO(1L, title, CREATED_AT, 1, 0, CREATED_AT, 1L, "Categoria", null, null, null, null,
+                2L, author);
+    }
+}
@@ -0,0 +1,120 @@
+package com.alura.forum.service;
+
+import com.alura.forum.model.entity.Category;
+import com.alura.forum.model.entity.Topic;
+import com.alura.forum.repository.TopicRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TopicCountServiceTest {
+
+    @Mock
+    private TopicRepository topicRepository;
+
+    @InjectMocks
+    private TopicCountService topicCountService;
+
+    @BeforeEach
+    void tenTopics() {
+        when(topicRepository.count()).thenReturn(10L);
+        when(topicRepository.countGroupedByCategory()).thenReturn(List.<Object[]>of(new Object[]{1L, 10L}));
+        when(topicRepository.countGroupedByCourse()).thenReturn(List.of());
+        when(topicRepository.countGroupedByStatus()).thenReturn(List.<Object[]>of(new Object[]{1, 10L}));
+        topicCountService.refresh();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void withoutTransactionDeltaIsAppliedImmediately() {
+        topicCountService.onCreated(topic(1L, 1));
+
+        assertThat(topicCountService.total()).isEqualTo(11);
+        assertThat(topicCountService.countByCategory(1L)).isEqualTo(11);
+    }
+
+    @Test
+    void deltaIsAppliedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        topicCountService.onCreated(topic(1L, 1));
+        topicCountService.onStatusChanged(1, 2);
+
+        assertThat(topicCountService.total()).isEqualTo(10);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(topicCountService.total()).isEqualTo(11);
+        assertThat(topicCountService.countByStatus(1)).isEqualTo(10);
+        assertThat(topicCountService.countByStatus(2)).isEqualTo(1);
+    }
+
+    @Test
+    void rolledBackWriteIsNotCounted() {
+        TransactionSynchronizationManager.initSynchronization();
+        topicCountService.onDeleted(1L, null, 1);
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(topicCountService.total()).isEqualTo(10);
+        assertThat(topicCountService.countByCategory(1L)).isEqualTo(10);
+    }
+
+    @Test
+    void deltaAppliedDuringRefreshSurvivesTheSwap() {
+        // O tópico é criado (e confirmado) depois de a contagem total já ter sido lida do banco
+        when(topicRepository.countGroupedByCategory()).thenAnswer(invocation -> {
+            topicCountService.onCreated(topic(1L, 1));
+            return List.<Object[]>of(new Object[]{1L, 10L});
+        });
+
+        topicCountService.refresh();
+
+        assertThat(topicCountService.total()).isEqualTo(11);
+        assertThat(topicCountService.countByCategory(1L)).isEqualTo(11);
+        assertThat(topicCountService.countByStatus(1)).isEqualTo(11);
+    }
+
+    @Test
+    void refreshAfterCommitWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(topicRepository.count()).thenReturn(7L);
+        topicCountService.refreshAfterCommit();
+
+        assertThat(topicCountService.total()).isEqualTo(10);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(topicCountService.total()).isEqualTo(7);
+    }
+
+    private static Topic topic(Long categoryId, Integer status) {
+        Topic topic = new Topic();
+        Category category = new Category();
+        category.setId(categoryId);
+        topic.setCategory(category);
+        topic.setStatus(status);
+        return topic;
+    }
+
+    // Encerra a "transação" simulada como o AbstractPlatformTransactionManager faria
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(status));
+    }
+}